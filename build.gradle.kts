@@ -4,6 +4,7 @@ plugins {
     id("org.springframework.boot") version "3.2.0"
     id("io.spring.dependency-management") version "1.1.4"
     id("org.sonarqube") version "4.4.1.3373"
+    id("me.champeau.jmh") version "0.7.2"
     kotlin("jvm") version "1.9.20"
 }
 
@@ -43,13 +44,21 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
     annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
 
+    /**
+     * Metrics
+     */
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+
     /**
      * Database
      */
     implementation("org.liquibase:liquibase-core")
     implementation("redis.clients:jedis:4.3.2")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     runtimeOnly("org.postgresql:postgresql")
 
     /**
@@ -71,6 +80,7 @@ dependencies {
      * Utils & Logging
      */
     implementation("org.slf4j:slf4j-api:2.0.7")
+    implementation("com.fasterxml.jackson.module:jackson-module-blackbird")
     implementation("org.mapstruct:mapstruct:1.5.3.Final")
     annotationProcessor("org.mapstruct:mapstruct-processor:1.5.3.Final")
     implementation("org.projectlombok:lombok:1.18.32")
@@ -78,6 +88,16 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok-mapstruct-binding:0.2.0")
 }
 
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/${findProperty("jmhRun") ?: "results"}.json"))
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
 tasks.test {
     useJUnitPlatform()
     systemProperty("spring.profiles.active", "test")
@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Runs the k6 scenario against the platform-thread and virtual-thread profiles
+# and writes one summary per run into load-test/results.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mkdir -p load-test/results
+
+for profile in default virtual-threads; do
+    if [ "$profile" = "default" ]; then
+        ./gradlew bootRun >"load-test/results/$profile.log" 2>&1 &
+    else
+        ./gradlew bootRun --args="--spring.profiles.active=dev,$profile" >"load-test/results/$profile.log" 2>&1 &
+    fi
+    app_pid=$!
+    until curl -sf http://localhost:8080/users/1 >/dev/null; do sleep 1; done
+    k6 run --summary-export "load-test/results/$profile.json" load-test/user-service.js
+    kill "$app_pid"
+    wait "$app_pid" || true
+done
+
+for profile in default virtual-threads; do
+    jq -r --arg p "$profile" \
+        '"\($p): p99=\(.metrics.http_req_duration["p(99)"])ms rps=\(.metrics.http_reqs.rate) failed=\(.metrics.http_req_failed.value)"' \
+        "load-test/results/$profile.json"
+done
@@ -0,0 +1,30 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USER_IDS = (__ENV.USER_IDS || '1,2,3,4,5,6,7,8,9,10').split(',');
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 2000),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: Number(__ENV.MAX_VUS || 2000),
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export default function () {
+    const id = USER_IDS[Math.floor(Math.random() * USER_IDS.length)];
+    const res = Math.random() < 0.8
+        ? http.get(`${BASE_URL}/users/${id}`)
+        : http.get(`${BASE_URL}/users?limit=20`);
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
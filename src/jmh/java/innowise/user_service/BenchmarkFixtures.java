@@ -0,0 +1,64 @@
+package innowise.user_service;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.entity.Card;
+import innowise.user_service.entity.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(long id, int cardCount) {
+        User user = User.builder()
+                .id(id)
+                .name("John")
+                .surname("Doe")
+                .email("john.doe" + id + "@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+        List<Card> cards = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            cards.add(card(9_000_000L + i, user));
+        }
+        user.setCards(cards);
+        return user;
+    }
+
+    public static Card card(long id, User user) {
+        return Card.builder()
+                .id(id)
+                .user(user)
+                .number(String.format("%016d", id))
+                .holder("JOHN DOE " + id)
+                .expirationDate(LocalDate.of(2030, 12, 31))
+                .build();
+    }
+
+    public static UserDto userDto(long id, int cardCount) {
+        return UserDto.builder()
+                .id(id)
+                .name("John")
+                .surname("Doe")
+                .email("john.doe" + id + "@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .cardIds(LongStream.range(0, cardCount).map(i -> 9_000_000L + i).boxed().toList())
+                .build();
+    }
+
+    public static CardDto cardDto(long id, long userId) {
+        return CardDto.builder()
+                .id(id)
+                .userId(userId)
+                .number(String.format("%016d", id))
+                .holder("JOHN DOE " + id)
+                .expirationDate(LocalDate.of(2030, 12, 31))
+                .build();
+    }
+}
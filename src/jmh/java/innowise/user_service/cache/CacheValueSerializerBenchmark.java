@@ -0,0 +1,73 @@
+package innowise.user_service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import innowise.user_service.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheValueSerializerBenchmark {
+
+    @Param({"compact", "jdk", "json"})
+    private String format;
+
+    @Param({"0", "5"})
+    private int cardCount;
+
+    private RedisSerializer<Object> serializer;
+    private UserDto userDto;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        serializer = switch (format) {
+            case "compact" -> new CompactCacheSerializer();
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            case "json" -> {
+                ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+                RedisSerializer<?> json = new Jackson2JsonRedisSerializer<>(objectMapper, UserDto.class);
+                yield (RedisSerializer<Object>) json;
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        userDto = UserDto.builder()
+                .id(1_234_567L)
+                .name("John")
+                .surname("Doe")
+                .email("john.doe@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .cardIds(LongStream.range(0, cardCount).map(i -> 9_000_000L + i).boxed().toList())
+                .build();
+        payload = serializer.serialize(userDto);
+        System.out.printf("%n[%s, %d cards] payload size: %d bytes%n", format, cardCount, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(userDto);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(payload);
+    }
+}
@@ -0,0 +1,71 @@
+package innowise.user_service.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import innowise.user_service.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int cardCount;
+
+    private ObjectWriter userWriter;
+    private ObjectReader userReader;
+    private ObjectWriter cardWriter;
+    private ObjectReader cardReader;
+
+    private UserDto userDto;
+    private CardDto cardDto;
+    private byte[] userJson;
+    private byte[] cardJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userWriter = objectMapper.writerFor(UserDto.class);
+        userReader = objectMapper.readerFor(UserDto.class);
+        cardWriter = objectMapper.writerFor(CardDto.class);
+        cardReader = objectMapper.readerFor(CardDto.class);
+        userDto = BenchmarkFixtures.userDto(1_234_567L, cardCount);
+        cardDto = BenchmarkFixtures.cardDto(9_000_000L, 1_234_567L);
+        userJson = userWriter.writeValueAsBytes(userDto);
+        cardJson = cardWriter.writeValueAsBytes(cardDto);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return userWriter.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public UserDto readUser() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public byte[] writeCard() throws IOException {
+        return cardWriter.writeValueAsBytes(cardDto);
+    }
+
+    @Benchmark
+    public CardDto readCard() throws IOException {
+        return cardReader.readValue(cardJson);
+    }
+}
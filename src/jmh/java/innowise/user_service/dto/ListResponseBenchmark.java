@@ -0,0 +1,87 @@
+package innowise.user_service.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import innowise.user_service.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU per /users/list and /cards/list response of 1,000 elements, with and without Blackbird and gzip.
+ * The encoded size of each combination is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListResponseBenchmark {
+
+    private static final int ELEMENTS = 1_000;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectWriter userListWriter;
+    private ObjectWriter cardListWriter;
+    private List<UserDto> users;
+    private List<CardDto> cards;
+    private ByteArrayOutputStream buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        userListWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UserDto.class));
+        cardListWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, CardDto.class));
+        users = LongStream.range(0, ELEMENTS).mapToObj(id -> BenchmarkFixtures.userDto(1_000_000L + id, 3)).toList();
+        cards = LongStream.range(0, ELEMENTS).mapToObj(id -> BenchmarkFixtures.cardDto(9_000_000L + id, id)).toList();
+        buffer = new ByteArrayOutputStream(256 * 1024);
+        System.out.printf("encoding=%s users=%d bytes, cards=%d bytes%n", encoding, writeUsers(), writeCards());
+    }
+
+    @Benchmark
+    public int writeUsers() throws IOException {
+        return write(userListWriter, users);
+    }
+
+    @Benchmark
+    public int writeCards() throws IOException {
+        return write(cardListWriter, cards);
+    }
+
+    private int write(ObjectWriter writer, Object value) throws IOException {
+        buffer.reset();
+        if ("gzip".equals(encoding)) {
+            try (OutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+                writer.writeValue(gzip, value);
+            }
+        } else {
+            writer.writeValue(buffer, value);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,63 @@
+package innowise.user_service.mapper;
+
+import innowise.user_service.BenchmarkFixtures;
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.entity.Card;
+import innowise.user_service.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int cardCount;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final CardMapper cardMapper = new CardMapperImpl();
+
+    private User user;
+    private UserDto userDto;
+    private Card card;
+    private CardDto cardDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = BenchmarkFixtures.user(1_234_567L, cardCount);
+        userDto = BenchmarkFixtures.userDto(1_234_567L, cardCount);
+        card = BenchmarkFixtures.card(9_000_000L, user);
+        cardDto = BenchmarkFixtures.cardDto(9_000_000L, 1_234_567L);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public CardDto cardToDto() {
+        return cardMapper.toDto(card);
+    }
+
+    @Benchmark
+    public Card cardToEntity() {
+        return cardMapper.toEntity(cardDto);
+    }
+}
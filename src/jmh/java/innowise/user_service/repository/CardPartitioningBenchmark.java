@@ -0,0 +1,207 @@
+package innowise.user_service.repository;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the statements Hibernate issues for {@link CardRepository#saveAndFlush},
+ * {@link CardRepository#findByUserIdAndIdGreaterThanOrderByIdAsc} (first page of 20) and
+ * {@link CardRepository#findById} before and after the card_info partitioning. Both layouts come from
+ * the application's own Liquibase changelog: "plain" runs V1–V6 and seeds, "partitioned" does the same
+ * and then applies V7, so the seeded cards go through the real backfill and cutover. Each layout lives
+ * in its own schema of the database at BENCHMARK_JDBC_URL (BENCHMARK_JDBC_USER, BENCHMARK_JDBC_PASSWORD),
+ * which is dropped afterwards. Commits are asynchronous so index maintenance, not fsync, dominates.
+ */
+@State(Scope.Benchmark)
+public class CardPartitioningBenchmark {
+    private static final String CHANGELOG_V6 = "db/benchmark/changelog-v6.yaml";
+    private static final String CHANGELOG_V7 = "db/changelog/db.changelog-master.yaml";
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final String SEED = """
+            insert into users (id, name, surname, birth_date, email)
+            select g, 'John', 'Doe', date '1990-01-01', 'john.doe' || g || '@example.com'
+            from generate_series(1, %1$d) g;
+            insert into card_info (id, number, expiration_date, user_id)
+            select g, lpad(g::text, 16, '0'), date '2030-01-01', 1 + g %% %1$d
+            from generate_series(1, %2$d) g;
+            select setval('users_id_seq', %1$d + 50, false);
+            select setval('card_info_id_seq', %2$d + 50, false);
+            analyze users;
+            analyze card_info;
+            """;
+    private static final String NEXT_CARD_ID = "select nextval('card_info_id_seq')";
+    private static final String INSERT_CARD =
+            "insert into card_info (deleted_at,expiration_date,holder,number,user_id,version,id)"
+                    + " values (?,?,?,?,?,?,?)";
+    private static final String CARDS_BY_USER =
+            "select c1_0.id,c1_0.deleted_at,c1_0.expiration_date,c1_0.holder,c1_0.number,c1_0.user_id,c1_0.version"
+                    + " from card_info c1_0 where c1_0.user_id=? and c1_0.id>? and (c1_0.deleted_at is null)"
+                    + " order by c1_0.id fetch first ? rows only";
+    private static final String CARD_BY_ID =
+            "select c1_0.id,c1_0.deleted_at,c1_0.expiration_date,c1_0.holder,c1_0.number,c1_0.user_id,c1_0.version"
+                    + " from card_info c1_0 where c1_0.id=? and (c1_0.deleted_at is null)";
+
+    @Param({"plain", "partitioned"})
+    private String layout;
+
+    @Param({"1000000"})
+    private int seededCards;
+
+    private int userCount;
+    private long nextNumber;
+    private long nextCardId;
+    private long allocatedCardId;
+    private String schema;
+    private Connection connection;
+    private PreparedStatement nextCardIdStatement;
+    private PreparedStatement insertCard;
+    private PreparedStatement cardsByUser;
+    private PreparedStatement cardById;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, LiquibaseException {
+        connection = DriverManager.getConnection(
+                env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/user_service_db"),
+                env("BENCHMARK_JDBC_USER", "daria"),
+                env("BENCHMARK_JDBC_PASSWORD", "password"));
+        schema = "card_benchmark_" + layout;
+        userCount = Math.max(seededCards / 3, 1);
+        nextNumber = seededCards + 1L;
+        nextCardId = 1;
+        allocatedCardId = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop schema if exists " + schema + " cascade");
+            statement.execute("create schema " + schema);
+            statement.execute("set search_path to " + schema);
+        }
+        migrate(CHANGELOG_V6);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format(SEED, userCount, seededCards));
+        }
+        if ("partitioned".equals(layout)) {
+            migrate(CHANGELOG_V7);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("set synchronous_commit to off");
+        }
+        nextCardIdStatement = connection.prepareStatement(NEXT_CARD_ID);
+        insertCard = connection.prepareStatement(INSERT_CARD);
+        cardsByUser = connection.prepareStatement(CARDS_BY_USER);
+        cardById = connection.prepareStatement(CARD_BY_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop schema if exists " + schema + " cascade");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int insertCard() throws SQLException {
+        insertCard.setNull(1, Types.TIMESTAMP_WITH_TIMEZONE);
+        insertCard.setDate(2, Date.valueOf(LocalDate.of(2030, 1, 1)));
+        insertCard.setNull(3, Types.VARCHAR);
+        insertCard.setString(4, String.format("%016d", nextNumber++));
+        insertCard.setLong(5, randomUserId());
+        insertCard.setLong(6, 0);
+        insertCard.setLong(7, nextCardId());
+        return insertCard.executeUpdate();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int findCardsByUser() throws SQLException {
+        cardsByUser.setLong(1, randomUserId());
+        cardsByUser.setLong(2, 0);
+        cardsByUser.setInt(3, PAGE_SIZE + 1);
+        int cards = 0;
+        try (ResultSet resultSet = cardsByUser.executeQuery()) {
+            while (resultSet.next()) {
+                cards++;
+            }
+        }
+        return cards;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean findCardById() throws SQLException {
+        cardById.setLong(1, randomCardId());
+        try (ResultSet resultSet = cardById.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    private void migrate(String changelog) throws SQLException, LiquibaseException {
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        database.setDefaultSchemaName(schema);
+        new Liquibase(changelog, new ClassLoaderResourceAccessor(), database)
+                .update(new Contexts(), new LabelExpression());
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * Hands out ids the way Hibernate's pooled optimizer does for allocationSize 50: one nextval per
+     * 50 inserts, covering the 50 ids up to the returned value.
+     */
+    private long nextCardId() throws SQLException {
+        if (nextCardId > allocatedCardId) {
+            try (ResultSet resultSet = nextCardIdStatement.executeQuery()) {
+                resultSet.next();
+                allocatedCardId = resultSet.getLong(1);
+            }
+            nextCardId = allocatedCardId - ID_ALLOCATION_SIZE + 1;
+        }
+        return nextCardId++;
+    }
+
+    private long randomCardId() {
+        return 1 + ThreadLocalRandom.current().nextInt(seededCards);
+    }
+
+    private long randomUserId() {
+        return 1 + ThreadLocalRandom.current().nextInt(userCount);
+    }
+
+    private static String env(String name, String defaultValue) {
+        return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+    }
+}
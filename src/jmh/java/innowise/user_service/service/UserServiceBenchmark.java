@@ -0,0 +1,137 @@
+package innowise.user_service.service;
+
+import innowise.user_service.BenchmarkFixtures;
+import innowise.user_service.bloom.IdFilters;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.entity.User;
+import innowise.user_service.mapper.UserMapperImpl;
+import innowise.user_service.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link UserService#getUserById} through its read-through cache. The
+ * repository is an in-memory stub and the cache is a local map, so the numbers cover
+ * id filter, mapping and cache bookkeeping but not Postgres or Redis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserServiceBenchmark {
+    private static final long USER_ID = 1_234_567L;
+
+    @Param({"0", "5", "50"})
+    private int cardCount;
+
+    private AnnotationConfigApplicationContext context;
+    private UserService userService;
+    private Cache userCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = BenchmarkFixtures.user(USER_ID, cardCount);
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(UserRepository.class, () -> stubUserRepository(user));
+        context.register(BenchmarkConfig.class);
+        context.refresh();
+        userService = context.getBean(UserService.class);
+        userCache = context.getBean(CacheManager.class).getCache("user");
+        userService.getUserById(USER_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto cacheHit() {
+        return userService.getUserById(USER_ID);
+    }
+
+    @Benchmark
+    public UserDto cacheMiss() {
+        userCache.evict(USER_ID);
+        return userService.getUserById(USER_ID);
+    }
+
+    private static UserRepository stubUserRepository(User user) {
+        return stub(UserRepository.class, Map.of(
+                "findWithCardsById", Optional.of(user),
+                "findById", Optional.of(user)));
+    }
+
+    private static <T> T stub(Class<T> type, Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "stub " + type.getSimpleName();
+                    default -> {
+                        if (!answers.containsKey(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        yield answers.get(method.getName());
+                    }
+                }));
+    }
+
+    @Configuration
+    @EnableCaching
+    static class BenchmarkConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("user");
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        DtoValidator dtoValidator(LocalValidatorFactoryBean validator) {
+            return new DtoValidator(validator);
+        }
+
+        @Bean
+        UserMapperImpl userMapper() {
+            return new UserMapperImpl();
+        }
+
+        @Bean
+        IdFilters idFilters() {
+            // Never built, so every id is "maybe present" and lookups always reach the cache and database.
+            return new IdFilters(null, "benchmark:id-filter");
+        }
+
+        @Bean
+        UserService userService(UserRepository userRepository, UserMapperImpl userMapper, DtoValidator dtoValidator,
+                                CacheManager cacheManager, IdFilters idFilters) {
+            // Only read paths are measured, so no outbox writer is needed.
+            return new UserService(userRepository, userMapper, dtoValidator, cacheManager, null, idFilters);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package innowise.user_service.bloom;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Set of the ids that exist in one table, answering "definitely absent" or "maybe present". It answers
+ * "maybe" until the first build from the table completes. Ids added while a rebuild is scanning go into
+ * both the live and the next filter, so the swap does not lose them. Deleted ids stay in the filter
+ * until the next rebuild, which only costs the usual database lookup.
+ */
+public class IdFilter {
+    private final String name;
+    private final String table;
+    private final LongAdder rejections = new LongAdder();
+    private volatile LongBloomFilter current;
+    private volatile LongBloomFilter next;
+
+    public IdFilter(String name, String table) {
+        this.name = name;
+        this.table = table;
+    }
+
+    public boolean definitelyAbsent(long id) {
+        LongBloomFilter filter = current;
+        if (filter == null || filter.mightContain(id)) {
+            return false;
+        }
+        rejections.increment();
+        return true;
+    }
+
+    public void add(long id) {
+        LongBloomFilter filter = current;
+        if (filter != null) {
+            filter.put(id);
+        }
+        LongBloomFilter rebuilding = next;
+        if (rebuilding != null) {
+            rebuilding.put(id);
+        }
+    }
+
+    LongBloomFilter startRebuild(long expectedInsertions, double falsePositiveProbability) {
+        LongBloomFilter rebuilding = new LongBloomFilter(expectedInsertions, falsePositiveProbability);
+        next = rebuilding;
+        return rebuilding;
+    }
+
+    void finishRebuild(LongBloomFilter rebuilt) {
+        current = rebuilt;
+        next = null;
+    }
+
+    void abortRebuild() {
+        next = null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public long getEntries() {
+        LongBloomFilter filter = current;
+        return filter == null ? 0 : filter.getInsertions();
+    }
+
+    public double getFalsePositiveProbability() {
+        LongBloomFilter filter = current;
+        return filter == null ? 1.0 : filter.expectedFalsePositiveProbability();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+}
@@ -0,0 +1,17 @@
+package innowise.user_service.bloom;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+@RequiredArgsConstructor
+public class IdFilterListener implements MessageListener {
+    private final IdFilters idFilters;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        idFilters.apply(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
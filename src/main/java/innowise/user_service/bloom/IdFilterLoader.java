@@ -0,0 +1,80 @@
+package innowise.user_service.bloom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the id filters in the background once the application is ready and rebuilds them periodically, which also drops
+ * deleted ids. Tables are read in keyset-ordered batches on the primary, so a large table never has to
+ * fit in one result set and a rebuild never sees replica lag.
+ */
+@Slf4j
+public class IdFilterLoader implements ApplicationListener<ApplicationReadyEvent>, Closeable {
+    private final IdFilters idFilters;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdFilterProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "id-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdFilterLoader(IdFilters idFilters, JdbcTemplate jdbcTemplate, IdFilterProperties properties) {
+        this.idFilters = idFilters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        scheduler.scheduleWithFixedDelay(this::rebuildAll,
+                0, properties.getRebuildInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void rebuildAll() {
+        idFilters.all().forEach(this::rebuild);
+    }
+
+    public void rebuild(IdFilter filter) {
+        try {
+            long expected = Math.max(properties.getMinimumExpectedInsertions(),
+                    (long) (estimateRows(filter.getTable()) * properties.getGrowthFactor()));
+            LongBloomFilter rebuilt = filter.startRebuild(expected, properties.getFalsePositiveProbability());
+            String query = String.format("select id from %s where id > ? and deleted_at is null order by id limit ?", filter.getTable());
+            long after = 0;
+            List<Long> ids;
+            do {
+                ids = jdbcTemplate.queryForList(query, Long.class, after, properties.getScanBatchSize());
+                ids.forEach(rebuilt::put);
+                if (!ids.isEmpty()) {
+                    after = ids.getLast();
+                }
+            } while (ids.size() == properties.getScanBatchSize());
+            filter.finishRebuild(rebuilt);
+        } catch (DataAccessException e) {
+            filter.abortRebuild();
+            log.warn("Failed to rebuild the {} id filter", filter.getName(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private long estimateRows(String table) {
+        Long rows = jdbcTemplate.queryForObject(
+                "select coalesce((select greatest(reltuples, 0)::bigint from pg_class where oid = to_regclass(?)), 0)",
+                Long.class, table);
+        return rows == null ? 0 : rows;
+    }
+}
@@ -0,0 +1,29 @@
+package innowise.user_service.bloom;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class IdFilterMetrics implements MeterBinder {
+    private final IdFilters idFilters;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (IdFilter filter : idFilters.all()) {
+            Gauge.builder("id.filter.false.positive.probability", filter, IdFilter::getFalsePositiveProbability)
+                    .description("Estimated probability that a nonexistent id still goes to the database")
+                    .tag("filter", filter.getName())
+                    .register(registry);
+            Gauge.builder("id.filter.entries", filter, IdFilter::getEntries)
+                    .tag("filter", filter.getName())
+                    .register(registry);
+            FunctionCounter.builder("id.filter.rejections", filter, IdFilter::getRejections)
+                    .description("Lookups answered with 404 without touching the database or Redis")
+                    .tag("filter", filter.getName())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package innowise.user_service.bloom;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "id-filter")
+public class IdFilterProperties {
+
+    private boolean enabled = true;
+
+    private String channel = "user-service:id-filter";
+
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * Filters are sized for this many times the current row count, so growth between rebuilds does
+     * not push the false-positive rate far above the target.
+     */
+    private double growthFactor = 2.0;
+
+    private long minimumExpectedInsertions = 100_000;
+
+    private int scanBatchSize = 10_000;
+
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+}
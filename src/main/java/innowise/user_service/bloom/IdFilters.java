@@ -0,0 +1,115 @@
+package innowise.user_service.bloom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-node negative cache of user and card ids. A created id is added locally right away and, once its
+ * transaction commits, announced to every node (this one included) over Redis pub/sub, so the filters
+ * on other nodes and any rebuild in progress pick it up.
+ * <p>
+ * Announcements are best effort, so an id the filter rejects may still exist. Callers therefore use a
+ * rejection only to skip the cache tiers and go straight to the database, which stays the only source of
+ * a 404. An id found there is added back with {@link #userFound} or {@link #cardFound}.
+ */
+@Slf4j
+public class IdFilters {
+    public static final String USERS = "user";
+    public static final String CARDS = "card";
+
+    private final IdFilter users = new IdFilter(USERS, "users");
+    private final IdFilter cards = new IdFilter(CARDS, "card_info");
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+
+    public IdFilters(StringRedisTemplate stringRedisTemplate, String channel) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = channel;
+    }
+
+    public boolean userMissing(long id) {
+        return users.definitelyAbsent(id);
+    }
+
+    public boolean cardMissing(long id) {
+        return cards.definitelyAbsent(id);
+    }
+
+    /**
+     * Adds an id that the filter rejected but the database returned, on this node only.
+     */
+    public void userFound(long id) {
+        users.add(id);
+    }
+
+    public void cardFound(long id) {
+        cards.add(id);
+    }
+
+    public void usersCreated(Collection<Long> ids) {
+        created(users, ids);
+    }
+
+    public void cardsCreated(Collection<Long> ids) {
+        created(cards, ids);
+    }
+
+    public List<IdFilter> all() {
+        return List.of(users, cards);
+    }
+
+    public IdFilter get(String name) {
+        return USERS.equals(name) ? users : CARDS.equals(name) ? cards : null;
+    }
+
+    /**
+     * Applies a message published by {@link #usersCreated} or {@link #cardsCreated} on any node.
+     */
+    public void apply(String message) {
+        int separator = message.indexOf(':');
+        IdFilter filter = separator < 0 ? null : get(message.substring(0, separator));
+        if (filter == null) {
+            return;
+        }
+        for (String id : message.substring(separator + 1).split(",")) {
+            filter.add(Long.parseLong(id));
+        }
+    }
+
+    private void created(IdFilter filter, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(filter::add);
+        String message = filter.getName() + ":" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(message);
+                }
+            });
+        } else {
+            publish(message);
+        }
+    }
+
+    private void publish(String message) {
+        if (stringRedisTemplate == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (DataAccessException exception) {
+            log.warn("Failed to announce created ids, other nodes will see them after their next rebuild",
+                    exception);
+        }
+    }
+}
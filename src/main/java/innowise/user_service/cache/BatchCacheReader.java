@@ -0,0 +1,78 @@
+package innowise.user_service.cache;
+
+import innowise.user_service.datasource.ReadYourWritesContext;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class BatchCacheReader {
+
+    private BatchCacheReader() {
+    }
+
+    public static <K, V> CachedBatch<V> getAll(Cache cache,
+                                               List<K> keys,
+                                               Class<V> type,
+                                               Function<Collection<K>, Map<K, V>> loader) {
+        Set<K> uniqueKeys = new LinkedHashSet<>(keys);
+        Map<K, V> values = new HashMap<>(uniqueKeys.size());
+        TwoTierCache twoTierCache = TwoTierCacheManager.unwrap(cache);
+        if (twoTierCache != null) {
+            twoTierCache.getAll(uniqueKeys).forEach((key, value) -> values.put(cast(key), type.cast(value)));
+        } else {
+            for (K key : uniqueKeys) {
+                V value = cache.get(key, type);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+        }
+        int hits = values.size();
+        List<K> missingKeys = uniqueKeys.stream().filter(key -> !values.containsKey(key)).toList();
+        if (!missingKeys.isEmpty()) {
+            Map<K, V> loaded = ReadYourWritesContext.onPrimary(() -> loader.apply(missingKeys));
+            if (twoTierCache != null) {
+                afterCommit(() -> twoTierCache.putAll(loaded));
+            } else {
+                loaded.forEach(cache::put);
+            }
+            values.putAll(loaded);
+        }
+        List<V> ordered = keys.stream()
+                .map(values::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new CachedBatch<>(ordered, hits, missingKeys.size());
+    }
+
+    /**
+     * The two-tier cache is used unwrapped for its batched round trips, so its puts are deferred here
+     * the same way the transaction-aware decorator defers single puts.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K cast(Object key) {
+        return (K) key;
+    }
+}
@@ -0,0 +1,53 @@
+package innowise.user_service.cache;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+final class BinaryReader {
+    private final byte[] buffer;
+    private int position;
+
+    BinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() {
+        requireAvailable(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int current = readByte();
+            result |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Malformed varint in cached value");
+    }
+
+    long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    String readString() {
+        long length = readVarLong();
+        if (length > Integer.MAX_VALUE) {
+            throw new SerializationException("String length out of range in cached value");
+        }
+        requireAvailable((int) length);
+        String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+        position += (int) length;
+        return value;
+    }
+
+    private void requireAvailable(int length) {
+        if (length < 0 || position + length > buffer.length) {
+            throw new SerializationException("Unexpected end of cached value");
+        }
+    }
+}
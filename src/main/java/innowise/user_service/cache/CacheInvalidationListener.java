@@ -0,0 +1,32 @@
+package innowise.user_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+    private final CacheManager cacheManager;
+    private final String nodeId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation =
+                CacheInvalidationMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoTierCache twoTierCache = TwoTierCacheManager.unwrap(cacheManager.getCache(invalidation.cacheName()));
+        if (twoTierCache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            twoTierCache.invalidateLocalAll();
+        } else {
+            twoTierCache.invalidateLocal(invalidation.key());
+        }
+    }
+}
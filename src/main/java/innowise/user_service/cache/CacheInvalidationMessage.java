@@ -0,0 +1,27 @@
+package innowise.user_service.cache;
+
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+    private static final String SEPARATOR = "\n";
+
+    public static CacheInvalidationMessage clear(String origin, String cacheName) {
+        return new CacheInvalidationMessage(origin, cacheName, null);
+    }
+
+    public boolean isClear() {
+        return key == null;
+    }
+
+    public String encode() {
+        return isClear()
+                ? origin + SEPARATOR + cacheName
+                : origin + SEPARATOR + cacheName + SEPARATOR + key;
+    }
+
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload.split(SEPARATOR, 3);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Malformed cache invalidation message: " + payload);
+        }
+        return new CacheInvalidationMessage(parts[0], parts[1], parts.length == 3 ? parts[2] : null);
+    }
+}
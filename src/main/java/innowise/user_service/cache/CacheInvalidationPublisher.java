@@ -0,0 +1,30 @@
+package innowise.user_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationPublisher {
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+    private final String nodeId;
+
+    public void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(CacheInvalidationMessage.clear(nodeId, cacheName));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message.encode());
+        } catch (DataAccessException exception) {
+            log.warn("Failed to publish cache invalidation for cache {}", message.cacheName(), exception);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package innowise.user_service.cache;
+
+public record CacheTierStats(long hits, long misses, long puts, long evictions) {
+}
@@ -0,0 +1,6 @@
+package innowise.user_service.cache;
+
+import java.util.List;
+
+public record CachedBatch<V>(List<V> values, int hits, int misses) {
+}
@@ -0,0 +1,198 @@
+package innowise.user_service.cache;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+    static final int MAGIC = 0xC7;
+    static final int SCHEMA_VERSION = 1;
+
+    static final int TYPE_USER = 1;
+    static final int TYPE_CARD = 2;
+    static final int TYPE_LONG = 3;
+    static final int TYPE_CARD_LIST = 4;
+
+    private static final int INITIAL_BUFFER_SIZE = 128;
+
+    private final JdkSerializationRedisSerializer legacySerializer = new JdkSerializationRedisSerializer();
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value) {
+            case UserDto user -> encode(TYPE_USER, writer -> writeUser(writer, user));
+            case CardDto card -> encode(TYPE_CARD, writer -> writeCard(writer, card));
+            case Long number -> encode(TYPE_LONG, writer -> writer.writeSignedVarLong(number));
+            case List<?> list when isCardList(list) -> encode(TYPE_CARD_LIST, writer -> writeCards(writer, list));
+            default -> legacySerializer.serialize(value);
+        };
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+        BinaryReader reader = new BinaryReader(bytes);
+        reader.readByte();
+        int schemaVersion = reader.readByte();
+        if (schemaVersion != SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported cache schema version " + schemaVersion);
+        }
+        int type = reader.readByte();
+        return switch (type) {
+            case TYPE_USER -> readUser(reader);
+            case TYPE_CARD -> readCard(reader);
+            case TYPE_LONG -> reader.readSignedVarLong();
+            case TYPE_CARD_LIST -> readCards(reader);
+            default -> throw new SerializationException("Unknown cached value type " + type);
+        };
+    }
+
+    private static byte[] encode(int type, Consumer<BinaryWriter> body) {
+        BinaryWriter writer = new BinaryWriter(INITIAL_BUFFER_SIZE);
+        writer.writeByte(MAGIC);
+        writer.writeByte(SCHEMA_VERSION);
+        writer.writeByte(type);
+        body.accept(writer);
+        return writer.toByteArray();
+    }
+
+    private static void writeUser(BinaryWriter writer, UserDto user) {
+        writer.writeByte(presence(user.getId(), user.getName(), user.getSurname(),
+                user.getEmail(), user.getBirthDate(), user.getCardIds(), user.getVersion()));
+        writeLong(writer, user.getId());
+        writeString(writer, user.getName());
+        writeString(writer, user.getSurname());
+        writeString(writer, user.getEmail());
+        writeDate(writer, user.getBirthDate());
+        if (user.getCardIds() != null) {
+            writer.writeVarLong(user.getCardIds().size());
+            long previous = 0;
+            for (Long cardId : user.getCardIds()) {
+                writer.writeSignedVarLong(cardId - previous);
+                previous = cardId;
+            }
+        }
+        writeLong(writer, user.getVersion());
+    }
+
+    private static UserDto readUser(BinaryReader reader) {
+        int presence = reader.readByte();
+        UserDto user = new UserDto();
+        user.setId(isPresent(presence, 0) ? reader.readSignedVarLong() : null);
+        user.setName(isPresent(presence, 1) ? reader.readString() : null);
+        user.setSurname(isPresent(presence, 2) ? reader.readString() : null);
+        user.setEmail(isPresent(presence, 3) ? reader.readString() : null);
+        user.setBirthDate(isPresent(presence, 4) ? readDate(reader) : null);
+        if (isPresent(presence, 5)) {
+            int size = Math.toIntExact(reader.readVarLong());
+            List<Long> cardIds = new ArrayList<>(size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += reader.readSignedVarLong();
+                cardIds.add(previous);
+            }
+            user.setCardIds(cardIds);
+        }
+        user.setVersion(isPresent(presence, 6) ? reader.readSignedVarLong() : null);
+        return user;
+    }
+
+    private static void writeCard(BinaryWriter writer, CardDto card) {
+        writer.writeByte(presence(card.getId(), card.getUserId(), card.getNumber(),
+                card.getHolder(), card.getExpirationDate(), card.getVersion()));
+        writeLong(writer, card.getId());
+        writeLong(writer, card.getUserId());
+        writeString(writer, card.getNumber());
+        writeString(writer, card.getHolder());
+        writeDate(writer, card.getExpirationDate());
+        writeLong(writer, card.getVersion());
+    }
+
+    private static CardDto readCard(BinaryReader reader) {
+        int presence = reader.readByte();
+        CardDto card = new CardDto();
+        card.setId(isPresent(presence, 0) ? reader.readSignedVarLong() : null);
+        card.setUserId(isPresent(presence, 1) ? reader.readSignedVarLong() : null);
+        card.setNumber(isPresent(presence, 2) ? reader.readString() : null);
+        card.setHolder(isPresent(presence, 3) ? reader.readString() : null);
+        card.setExpirationDate(isPresent(presence, 4) ? readDate(reader) : null);
+        card.setVersion(isPresent(presence, 5) ? reader.readSignedVarLong() : null);
+        return card;
+    }
+
+    private static boolean isCardList(List<?> list) {
+        for (Object element : list) {
+            if (!(element instanceof CardDto)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeCards(BinaryWriter writer, List<?> cards) {
+        writer.writeVarLong(cards.size());
+        for (Object card : cards) {
+            writeCard(writer, (CardDto) card);
+        }
+    }
+
+    private static List<CardDto> readCards(BinaryReader reader) {
+        int size = Math.toIntExact(reader.readVarLong());
+        List<CardDto> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(readCard(reader));
+        }
+        return cards;
+    }
+
+    private static int presence(Object... fields) {
+        int presence = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                presence |= 1 << i;
+            }
+        }
+        return presence;
+    }
+
+    private static boolean isPresent(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+
+    private static void writeLong(BinaryWriter writer, Long value) {
+        if (value != null) {
+            writer.writeSignedVarLong(value);
+        }
+    }
+
+    private static void writeString(BinaryWriter writer, String value) {
+        if (value != null) {
+            writer.writeString(value);
+        }
+    }
+
+    private static void writeDate(BinaryWriter writer, LocalDate value) {
+        if (value != null) {
+            writer.writeSignedVarLong(value.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(BinaryReader reader) {
+        return LocalDate.ofEpochDay(reader.readSignedVarLong());
+    }
+}
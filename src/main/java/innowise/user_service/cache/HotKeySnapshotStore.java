@@ -0,0 +1,60 @@
+package innowise.user_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the hot keys of each cache in a Redis sorted set scored by frequency. Every node merges its own
+ * ranking into the shared set with ZUNIONSTORE, halving the stored scores first the same way
+ * {@link HotKeyTracker#decay()} ages the local sketch. Keys the cluster stopped reading fade out and the
+ * set, trimmed to the configured size, lets a freshly started node warm up from recent cluster traffic.
+ */
+@RequiredArgsConstructor
+public class HotKeySnapshotStore {
+    private static final double DECAY = 0.5;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String keyPrefix;
+    private final int size;
+    private final Duration timeToLive;
+
+    public void save(String cacheName, Map<String, Long> hotKeys) {
+        if (hotKeys.isEmpty()) {
+            return;
+        }
+        String key = snapshotKey(cacheName);
+        String nodeKey = key + ":" + UUID.randomUUID();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        hotKeys.forEach((cacheKey, count) -> tuples.add(new DefaultTypedTuple<>(cacheKey, count.doubleValue())));
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        try {
+            zSet.add(nodeKey, tuples);
+            zSet.unionAndStore(key, List.of(nodeKey), key, Aggregate.SUM, Weights.of(DECAY, 1));
+        } finally {
+            stringRedisTemplate.delete(nodeKey);
+        }
+        zSet.removeRange(key, 0, -(size + 1L));
+        stringRedisTemplate.expire(key, timeToLive);
+    }
+
+    public List<String> load(String cacheName) {
+        Set<String> hotKeys = stringRedisTemplate.opsForZSet().reverseRange(snapshotKey(cacheName), 0, size - 1L);
+        return hotKeys == null ? List.of() : new ArrayList<>(hotKeys);
+    }
+
+    public String snapshotKey(String cacheName) {
+        return keyPrefix + ":" + cacheName;
+    }
+}
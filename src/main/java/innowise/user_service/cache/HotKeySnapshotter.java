@@ -0,0 +1,57 @@
+package innowise.user_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class HotKeySnapshotter implements Closeable {
+    private final Map<String, HotKeyTracker> trackers;
+    private final HotKeySnapshotStore store;
+    private final int topN;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hot-key-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HotKeySnapshotter(Map<String, HotKeyTracker> trackers, HotKeySnapshotStore store, int topN, Duration interval) {
+        this.trackers = trackers;
+        this.store = store;
+        this.topN = topN;
+        this.interval = interval;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::snapshotAndDecay,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void snapshot() {
+        trackers.forEach((cacheName, tracker) -> {
+            try {
+                store.save(cacheName, tracker.topKeys(topN));
+            } catch (DataAccessException e) {
+                log.warn("Failed to store hot keys of cache {}", cacheName, e);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        snapshot();
+    }
+
+    private void snapshotAndDecay() {
+        snapshot();
+        trackers.values().forEach(HotKeyTracker::decay);
+    }
+}
@@ -0,0 +1,115 @@
+package innowise.user_service.cache;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate top-N of the most requested keys of one cache. Frequencies come from a count-min sketch,
+ * so recording is a handful of atomic increments regardless of the key space; only keys whose
+ * estimate beats the current admission threshold are kept as candidates. {@link #decay()} halves all
+ * counts so the ranking follows recent traffic.
+ */
+public class HotKeyTracker {
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLongArray counters;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+
+    private volatile long admissionThreshold;
+
+    public HotKeyTracker(int width, int topN) {
+        this.width = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.mask = this.width - 1;
+        this.capacity = topN;
+        this.counters = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    public void record(String key) {
+        long estimate = increment(key);
+        if (estimate > admissionThreshold || candidates.size() < capacity || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (candidates.size() > capacity * 2) {
+                prune();
+            }
+        }
+    }
+
+    public long estimate(String key) {
+        int hash = spread(key.hashCode());
+        int step = spread(hash) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.get(index(row, hash + row * step)));
+        }
+        return min;
+    }
+
+    /**
+     * Returns up to {@code limit} keys with their estimated frequency, hottest first.
+     */
+    public Map<String, Long> topKeys(int limit) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        candidates.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> count >>> 1);
+        }
+        candidates.replaceAll((key, count) -> count >>> 1);
+        candidates.values().removeIf(count -> count == 0);
+        admissionThreshold >>>= 1;
+    }
+
+    private long increment(String key) {
+        int hash = spread(key.hashCode());
+        int step = spread(hash) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.incrementAndGet(index(row, hash + row * step)));
+        }
+        return min;
+    }
+
+    private void prune() {
+        if (!pruneLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Long> counts = candidates.values().stream().sorted(Comparator.reverseOrder()).toList();
+            if (counts.size() <= capacity) {
+                return;
+            }
+            long threshold = counts.get(capacity - 1);
+            candidates.values().removeIf(count -> count < threshold);
+            admissionThreshold = threshold;
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+
+    private int index(int row, int hash) {
+        return row * width + (spread(hash) & mask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,157 @@
+package innowise.user_service.cache;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RedisCacheTier {
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final String name;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration timeToLive;
+    private final Duration earlyRefreshWindow;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RedisCacheTier(String name, RedisTemplate<String, Object> redisTemplate, Duration timeToLive) {
+        this(name, redisTemplate, timeToLive, Duration.ZERO);
+    }
+
+    public RedisCacheTier(String name,
+                          RedisTemplate<String, Object> redisTemplate,
+                          Duration timeToLive,
+                          Duration earlyRefreshWindow) {
+        this.name = name;
+        this.redisTemplate = redisTemplate;
+        this.timeToLive = timeToLive;
+        this.earlyRefreshWindow = earlyRefreshWindow;
+    }
+
+    public Object get(String key) {
+        Object value = redisTemplate.opsForValue().get(toRedisKey(key));
+        recordLookup(value);
+        return value;
+    }
+
+    /**
+     * Reads a value together with a decision whether the caller should reload it ahead of expiry.
+     * Inside the early refresh window the chance grows linearly as the remaining TTL shrinks, so a hot
+     * key is reloaded by one lucky reader long before it expires for everybody at once.
+     */
+    @SuppressWarnings("unchecked")
+    public Entry getEntry(String key) {
+        if (earlyRefreshWindow.isZero()) {
+            return new Entry(get(key), false);
+        }
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        byte[] rawKey = keySerializer.serialize(toRedisKey(key));
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().get(rawKey);
+            connection.keyCommands().pTtl(rawKey);
+            return null;
+        });
+        Object value = results.get(0);
+        recordLookup(value);
+        return new Entry(value, value != null && results.get(1) instanceof Long remaining && shouldRefreshEarly(remaining));
+    }
+
+    public List<Object> getAll(List<String> keys) {
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys.stream().map(this::toRedisKey).toList());
+        if (values == null) {
+            values = Collections.nCopies(keys.size(), null);
+        }
+        long found = values.stream().filter(Objects::nonNull).count();
+        hits.add(found);
+        misses.add(keys.size() - found);
+        return values;
+    }
+
+    public void put(String key, Object value) {
+        redisTemplate.opsForValue().set(toRedisKey(key), value, timeToLive);
+        puts.increment();
+    }
+
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<String, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Expiration expiration = Expiration.from(timeToLive);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> connection.stringCommands().set(
+                    keySerializer.serialize(toRedisKey(key)),
+                    valueSerializer.serialize(value),
+                    expiration,
+                    RedisStringCommands.SetOption.upsert()));
+            return null;
+        });
+        puts.add(entries.size());
+    }
+
+    public void evict(String key) {
+        if (Boolean.TRUE.equals(redisTemplate.delete(toRedisKey(key)))) {
+            evictions.increment();
+        }
+    }
+
+    public void clear() {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(name + "::*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    Long deleted = connection.keyCommands().del(cursor.next());
+                    if (deleted != null) {
+                        evictions.add(deleted);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    public CacheTierStats stats() {
+        return new CacheTierStats(hits.sum(), misses.sum(), puts.sum(), evictions.sum());
+    }
+
+    boolean shouldRefreshEarly(long remainingMillis) {
+        long window = earlyRefreshWindow.toMillis();
+        return remainingMillis >= 0 && remainingMillis < window
+                && ThreadLocalRandom.current().nextDouble() * window > remainingMillis;
+    }
+
+    private void recordLookup(Object value) {
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+    }
+
+    String toRedisKey(String key) {
+        return name + "::" + key;
+    }
+
+    public record Entry(Object value, boolean refreshEarly) {
+    }
+}
@@ -0,0 +1,27 @@
+package innowise.user_service.cache;
+
+import innowise.user_service.datasource.ReadYourWritesContext;
+import org.springframework.cache.Cache;
+
+import java.util.function.Supplier;
+
+public final class SyncCacheReader {
+
+    private SyncCacheReader() {
+    }
+
+    /**
+     * Reads through the cache with a single loader per key, rethrowing the loader's own runtime
+     * exception (such as a not-found) instead of the cache's wrapper. The loader reads from the primary.
+     */
+    public static <T> T get(Cache cache, Object key, Supplier<T> loader) {
+        try {
+            return cache.get(key, () -> ReadYourWritesContext.onPrimary(loader));
+        } catch (Cache.ValueRetrievalException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package innowise.user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TwoTierCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Cache<String, Object> nearCache;
+    private final RedisCacheTier remoteCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final HotKeyTracker hotKeyTracker;
+
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final LongAdder nearPuts = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    public TwoTierCache(String name,
+                        Cache<String, Object> nearCache,
+                        RedisCacheTier remoteCache,
+                        CacheInvalidationPublisher invalidationPublisher) {
+        this(name, nearCache, remoteCache, invalidationPublisher, null);
+    }
+
+    public TwoTierCache(String name,
+                        Cache<String, Object> nearCache,
+                        RedisCacheTier remoteCache,
+                        CacheInvalidationPublisher invalidationPublisher,
+                        HotKeyTracker hotKeyTracker) {
+        super(false);
+        this.name = name;
+        this.nearCache = nearCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return nearCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = toCacheKey(key);
+        recordAccess(cacheKey);
+        Object value = nearCache.getIfPresent(cacheKey);
+        if (value != null) {
+            return value;
+        }
+        value = remoteCache.get(cacheKey);
+        if (value != null) {
+            putNear(cacheKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * Loads a missing value at most once per key on this node: concurrent callers for the same key
+     * wait for the first caller's loader instead of running their own.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = toCacheKey(key);
+        recordAccess(cacheKey);
+        Object value = nearCache.getIfPresent(cacheKey);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+        RedisCacheTier.Entry remote = remoteCache.getEntry(cacheKey);
+        if (remote.value() != null) {
+            putNear(cacheKey, remote.value());
+            if (!remote.refreshEarly() || inFlightLoads.containsKey(cacheKey)) {
+                return (T) fromStoreValue(remote.value());
+            }
+            earlyRefreshes.increment();
+        }
+        return load(key, cacheKey, valueLoader, remote.value() == null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, String cacheKey, Callable<T> valueLoader, boolean recheckNear) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(cacheKey, flight);
+        if (existing != null) {
+            coalescedLoads.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException exception) {
+                throw new ValueRetrievalException(key, valueLoader, exception.getCause());
+            }
+        }
+        try {
+            Object cached = recheckNear ? nearCache.getIfPresent(cacheKey) : null;
+            T loaded;
+            if (cached != null) {
+                loaded = (T) fromStoreValue(cached);
+            } else {
+                loaded = valueLoader.call();
+                put(key, loaded);
+            }
+            flight.complete(loaded);
+            return loaded;
+        } catch (Exception exception) {
+            flight.completeExceptionally(exception);
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        } finally {
+            inFlightLoads.remove(cacheKey, flight);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = toCacheKey(key);
+        Object storeValue = toStoreValue(value);
+        putNear(cacheKey, storeValue);
+        remoteCache.put(cacheKey, storeValue);
+        invalidationPublisher.publishEvict(name, cacheKey);
+    }
+
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>(keys.size());
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            String cacheKey = toCacheKey(key);
+            recordAccess(cacheKey);
+            Object value = nearCache.getIfPresent(cacheKey);
+            if (value != null) {
+                found.put(key, fromStoreValue(value));
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+        List<Object> remoteValues = remoteCache.getAll(remoteKeys.stream().map(TwoTierCache::toCacheKey).toList());
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            Object value = remoteValues.get(i);
+            if (value != null) {
+                putNear(toCacheKey(remoteKeys.get(i)), value);
+                found.put(remoteKeys.get(i), fromStoreValue(value));
+            }
+        }
+        return found;
+    }
+
+    public void putAll(Map<?, ?> entries) {
+        Map<String, Object> storeValues = new LinkedHashMap<>(entries.size());
+        entries.forEach((key, value) -> {
+            String cacheKey = toCacheKey(key);
+            Object storeValue = toStoreValue(value);
+            putNear(cacheKey, storeValue);
+            storeValues.put(cacheKey, storeValue);
+        });
+        remoteCache.putAll(storeValues);
+        storeValues.keySet().forEach(cacheKey -> invalidationPublisher.publishEvict(name, cacheKey));
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = toCacheKey(key);
+        nearCache.invalidate(cacheKey);
+        remoteCache.evict(cacheKey);
+        invalidationPublisher.publishEvict(name, cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        nearCache.invalidateAll();
+        remoteCache.clear();
+        invalidationPublisher.publishClear(name);
+    }
+
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public void invalidateLocal(String cacheKey) {
+        nearCache.invalidate(cacheKey);
+    }
+
+    public void invalidateLocalAll() {
+        nearCache.invalidateAll();
+    }
+
+    public TwoTierCacheStats stats() {
+        CacheStats nearStats = nearCache.stats();
+        CacheTierStats near = new CacheTierStats(
+                nearStats.hitCount(), nearStats.missCount(), nearPuts.sum(), nearStats.evictionCount());
+        return new TwoTierCacheStats(nearCache.estimatedSize(), near, remoteCache.stats());
+    }
+
+    private void recordAccess(String cacheKey) {
+        if (hotKeyTracker != null) {
+            hotKeyTracker.record(cacheKey);
+        }
+    }
+
+    private void putNear(String cacheKey, Object value) {
+        nearCache.put(cacheKey, value);
+        nearPuts.increment();
+    }
+
+    private static String toCacheKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,82 @@
+package innowise.user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches are transaction-aware: puts and evicts issued inside a transaction are applied after it
+ * commits, so a concurrent reader cannot reload the pre-commit row into Redis after the evict.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+    private final TwoTierCacheProperties properties;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Map<String, HotKeyTracker> hotKeyTrackers = new LinkedHashMap<>();
+
+    public TwoTierCacheManager(TwoTierCacheProperties properties,
+                               RedisTemplate<String, Object> redisTemplate,
+                               CacheInvalidationPublisher invalidationPublisher) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        setTransactionAware(true);
+        TwoTierCacheProperties.HotKeys hotKeys = properties.getHotKeys();
+        if (hotKeys.isEnabled()) {
+            hotKeys.getCacheNames().forEach(name ->
+                    hotKeyTrackers.put(name, new HotKeyTracker(hotKeys.getSketchWidth(), hotKeys.getTopN())));
+        }
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.getCacheNames().stream()
+                .map(this::createCache)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    public Map<String, TwoTierCacheStats> stats() {
+        Map<String, TwoTierCacheStats> stats = new LinkedHashMap<>();
+        getCacheNames().forEach(name -> {
+            TwoTierCache cache = unwrap(getCache(name));
+            if (cache != null) {
+                stats.put(name, cache.stats());
+            }
+        });
+        return stats;
+    }
+
+    public Map<String, HotKeyTracker> getHotKeyTrackers() {
+        return hotKeyTrackers;
+    }
+
+    /**
+     * @return the two-tier cache behind the transaction-aware decorator, or null for any other cache
+     */
+    public static TwoTierCache unwrap(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        return target instanceof TwoTierCache twoTierCache ? twoTierCache : null;
+    }
+
+    private TwoTierCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> nearCache = Caffeine.newBuilder()
+                .maximumSize(properties.getNear().getMaximumSize())
+                .expireAfterWrite(properties.getNear().getTimeToLive())
+                .recordStats()
+                .build();
+        RedisCacheTier remoteCache = new RedisCacheTier(name, redisTemplate,
+                properties.getRemote().getTimeToLive(), properties.getRemote().getEarlyRefreshWindow());
+        return new TwoTierCache(name, nearCache, remoteCache, invalidationPublisher, hotKeyTrackers.get(name));
+    }
+}
@@ -0,0 +1,79 @@
+package innowise.user_service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.function.ToLongFunction;
+
+public class TwoTierCacheMetrics extends CacheMeterBinder<TwoTierCache> {
+
+    public TwoTierCacheMetrics(TwoTierCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoTierCache cache = getCache();
+        return cache == null ? null : cache.stats().nearSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoTierCache cache = getCache();
+        if (cache == null) {
+            return 0;
+        }
+        TwoTierCacheStats stats = cache.stats();
+        return stats.near().hits() + stats.remote().hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? null : cache.stats().remote().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? null : cache.stats().near().evictions();
+    }
+
+    @Override
+    protected long putCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? 0 : cache.stats().remote().puts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoTierCache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+        tierCounter(registry, cache, "near", "hit", stats -> stats.near().hits());
+        tierCounter(registry, cache, "near", "miss", stats -> stats.near().misses());
+        tierCounter(registry, cache, "remote", "hit", stats -> stats.remote().hits());
+        tierCounter(registry, cache, "remote", "miss", stats -> stats.remote().misses());
+        FunctionCounter.builder("cache.loads.coalesced", cache, TwoTierCache::getCoalescedLoads)
+                .tags(getTagsWithCacheName())
+                .description("The number of cache misses that waited for a load already in flight")
+                .register(registry);
+        FunctionCounter.builder("cache.refreshes.early", cache, TwoTierCache::getEarlyRefreshes)
+                .tags(getTagsWithCacheName())
+                .description("The number of entries reloaded ahead of their expiry")
+                .register(registry);
+    }
+
+    private void tierCounter(MeterRegistry registry, TwoTierCache cache, String tier, String result,
+                             ToLongFunction<TwoTierCacheStats> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, c -> count.applyAsLong(c.stats()))
+                .tags(getTagsWithCacheName())
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("The number of lookups answered by each cache tier")
+                .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package innowise.user_service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class TwoTierCacheProperties {
+
+    private String nodeId = UUID.randomUUID().toString();
+
+    private String invalidationChannel = "user-service:cache-invalidation";
+
+    private List<String> cacheNames = List.of("user", "userEmail", "card", "userCards");
+
+    private Serializer serializer = Serializer.COMPACT;
+
+    private Near near = new Near();
+
+    private Remote remote = new Remote();
+
+    private HotKeys hotKeys = new HotKeys();
+
+    private WarmUp warmUp = new WarmUp();
+
+    public enum Serializer {
+        COMPACT,
+        JDK
+    }
+
+    @Data
+    public static class Near {
+        private long maximumSize = 10_000;
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Remote {
+        private Duration timeToLive = Duration.ofMinutes(30);
+        private Duration earlyRefreshWindow = Duration.ZERO;
+    }
+
+    @Data
+    public static class HotKeys {
+        private boolean enabled = true;
+        private List<String> cacheNames = List.of("user");
+        private int sketchWidth = 8192;
+        private int topN = 2000;
+        private Duration snapshotInterval = Duration.ofMinutes(1);
+        private String snapshotKeyPrefix = "user-service:hot-keys";
+        private Duration snapshotTimeToLive = Duration.ofDays(1);
+    }
+
+    @Data
+    public static class WarmUp {
+        private boolean enabled = true;
+        private int batchSize = 200;
+        private int concurrency = 4;
+        private Duration timeout = Duration.ofSeconds(15);
+    }
+}
@@ -0,0 +1,4 @@
+package innowise.user_service.cache;
+
+public record TwoTierCacheStats(long nearSize, CacheTierStats near, CacheTierStats remote) {
+}
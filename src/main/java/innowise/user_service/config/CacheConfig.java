@@ -0,0 +1,81 @@
+package innowise.user_service.config;
+
+import innowise.user_service.cache.CacheInvalidationListener;
+import innowise.user_service.cache.CacheInvalidationPublisher;
+import innowise.user_service.cache.CompactCacheSerializer;
+import innowise.user_service.cache.HotKeySnapshotStore;
+import innowise.user_service.cache.HotKeySnapshotter;
+import innowise.user_service.cache.TwoTierCacheManager;
+import innowise.user_service.cache.TwoTierCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(TwoTierCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public RedisSerializer<Object> cacheValueSerializer(TwoTierCacheProperties properties) {
+        return switch (properties.getSerializer()) {
+            case COMPACT -> new CompactCacheSerializer();
+            case JDK -> new JdkSerializationRedisSerializer();
+        };
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 TwoTierCacheProperties properties) {
+        return new CacheInvalidationPublisher(
+                stringRedisTemplate, properties.getInvalidationChannel(), properties.getNodeId());
+    }
+
+    @Bean
+    public TwoTierCacheManager cacheManager(TwoTierCacheProperties properties,
+                                            RedisTemplate<String, Object> redisTemplate,
+                                            CacheInvalidationPublisher cacheInvalidationPublisher) {
+        return new TwoTierCacheManager(properties, redisTemplate, cacheInvalidationPublisher);
+    }
+
+    @Bean
+    public CacheInvalidationListener cacheInvalidationListener(TwoTierCacheManager cacheManager,
+                                                               TwoTierCacheProperties properties) {
+        return new CacheInvalidationListener(cacheManager, properties.getNodeId());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationListener listener,
+                                                                            TwoTierCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public HotKeySnapshotStore hotKeySnapshotStore(StringRedisTemplate stringRedisTemplate,
+                                                   TwoTierCacheProperties properties) {
+        TwoTierCacheProperties.HotKeys hotKeys = properties.getHotKeys();
+        return new HotKeySnapshotStore(stringRedisTemplate, hotKeys.getSnapshotKeyPrefix(),
+                hotKeys.getTopN(), hotKeys.getSnapshotTimeToLive());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public HotKeySnapshotter hotKeySnapshotter(TwoTierCacheManager cacheManager,
+                                               HotKeySnapshotStore hotKeySnapshotStore,
+                                               TwoTierCacheProperties properties) {
+        TwoTierCacheProperties.HotKeys hotKeys = properties.getHotKeys();
+        return new HotKeySnapshotter(cacheManager.getHotKeyTrackers(), hotKeySnapshotStore,
+                hotKeys.getTopN(), hotKeys.getSnapshotInterval());
+    }
+}
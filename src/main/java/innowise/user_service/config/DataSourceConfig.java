@@ -0,0 +1,34 @@
+package innowise.user_service.config;
+
+import innowise.user_service.datasource.BulkheadDataSource;
+import innowise.user_service.datasource.BulkheadProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class DataSourceConfig {
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "bulkhead", name = "enabled", havingValue = "true")
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<BulkheadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof BulkheadDataSource)) {
+                    BulkheadProperties bulkhead = properties.getObject();
+                    return new BulkheadDataSource(dataSource, bulkhead.getMaxConcurrentCalls(), bulkhead.getMaxWait());
+                }
+                return bean;
+            }
+        };
+    }
+}
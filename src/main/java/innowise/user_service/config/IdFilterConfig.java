@@ -0,0 +1,48 @@
+package innowise.user_service.config;
+
+import innowise.user_service.bloom.IdFilterListener;
+import innowise.user_service.bloom.IdFilterLoader;
+import innowise.user_service.bloom.IdFilterMetrics;
+import innowise.user_service.bloom.IdFilterProperties;
+import innowise.user_service.bloom.IdFilters;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(IdFilterProperties.class)
+public class IdFilterConfig {
+
+    @Bean
+    public IdFilters idFilters(StringRedisTemplate stringRedisTemplate, IdFilterProperties properties) {
+        return new IdFilters(stringRedisTemplate, properties.getChannel());
+    }
+
+    @Bean
+    public IdFilterMetrics idFilterMetrics(IdFilters idFilters) {
+        return new IdFilterMetrics(idFilters);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "id-filter", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public IdFilterLoader idFilterLoader(IdFilters idFilters, JdbcTemplate jdbcTemplate, IdFilterProperties properties) {
+        return new IdFilterLoader(idFilters, jdbcTemplate, properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "id-filter", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer idFilterListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                   IdFilters idFilters,
+                                                                   IdFilterProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new IdFilterListener(idFilters), new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+}
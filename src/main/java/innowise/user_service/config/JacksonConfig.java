@@ -0,0 +1,21 @@
+package innowise.user_service.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces reflective getter/setter/constructor calls with generated lambdas (LambdaMetafactory), which
+     * matters for the list and bulk endpoints that serialize thousands of DTOs per response.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "json", name = "blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
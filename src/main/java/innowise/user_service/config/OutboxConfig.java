@@ -0,0 +1,53 @@
+package innowise.user_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import innowise.user_service.outbox.InMemoryOutboxSink;
+import innowise.user_service.outbox.OutboxProperties;
+import innowise.user_service.outbox.OutboxRelay;
+import innowise.user_service.outbox.OutboxSink;
+import innowise.user_service.outbox.OutboxWriter;
+import innowise.user_service.outbox.RedisStreamOutboxSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    public OutboxWriter outboxWriter(JdbcTemplate jdbcTemplate,
+                                     EntityManager entityManager,
+                                     ObjectMapper objectMapper,
+                                     OutboxProperties properties) {
+        return new OutboxWriter(jdbcTemplate, entityManager, objectMapper, properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox", name = "sink", havingValue = "redis", matchIfMissing = true)
+    public OutboxSink redisStreamOutboxSink(StringRedisTemplate stringRedisTemplate, OutboxProperties properties) {
+        return new RedisStreamOutboxSink(stringRedisTemplate, properties.getStreamKey(), properties.getStreamMaxLength());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox", name = "sink", havingValue = "memory")
+    public OutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   OutboxSink outboxSink,
+                                   OutboxProperties properties,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(jdbcTemplate, transactionManager, outboxSink, properties, meterRegistry);
+    }
+}
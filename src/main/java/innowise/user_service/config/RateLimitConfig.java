@@ -0,0 +1,37 @@
+package innowise.user_service.config;
+
+import innowise.user_service.ratelimit.RateLimitFilter;
+import innowise.user_service.ratelimit.RateLimitProperties;
+import innowise.user_service.ratelimit.RateLimiter;
+import innowise.user_service.ratelimit.RedisTokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(StringRedisTemplate stringRedisTemplate, RateLimitProperties properties) {
+        return new RateLimiter(new RedisTokenBucket(stringRedisTemplate),
+                properties.getLeaseSize(), properties.getLeaseTimeToLive());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter,
+                                                                   RateLimitProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, properties, meterRegistry));
+        registration.addUrlPatterns("/users/*", "/cards/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,67 @@
+package innowise.user_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import innowise.user_service.datasource.ReadWriteRoutingDataSource;
+import innowise.user_service.datasource.ReadYourWritesFilter;
+import innowise.user_service.datasource.Replica;
+import innowise.user_service.datasource.ReplicaPool;
+import innowise.user_service.datasource.ReplicaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaPool replicaPool(ReplicaProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername());
+            dataSource.setPassword(node.getPassword());
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry ->
+                    dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new Replica(dataSource.getPoolName(), dataSource, properties.getMaxReplicationLag()));
+        }
+        return new ReplicaPool(replicas, properties.getSelection(), properties.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPool));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties properties) {
+        return new ReadYourWritesFilter(properties.getReadYourWritesWindow(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,25 @@
+package innowise.user_service.config;
+
+import innowise.user_service.softdelete.SoftDeleteProperties;
+import innowise.user_service.softdelete.SoftDeletePurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(SoftDeleteProperties.class)
+public class SoftDeleteConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "soft-delete.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SoftDeletePurger softDeletePurger(JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager,
+                                             SoftDeleteProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new SoftDeletePurger(jdbcTemplate, transactionManager, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,9 @@
+package innowise.user_service.controller;
+
+final class CacheHeaders {
+    static final String CACHE_HITS = "X-Cache-Hits";
+    static final String CACHE_MISSES = "X-Cache-Misses";
+
+    private CacheHeaders() {
+    }
+}
@@ -0,0 +1,23 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.cache.TwoTierCacheManager;
+import innowise.user_service.cache.TwoTierCacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/caches")
+public class CacheStatsController {
+    private final TwoTierCacheManager cacheManager;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, TwoTierCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheManager.stats());
+    }
+}
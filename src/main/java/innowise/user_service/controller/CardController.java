@@ -1,31 +1,41 @@
 package innowise.user_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import innowise.user_service.cache.CachedBatch;
+import innowise.user_service.dto.BulkResultDto;
 import innowise.user_service.dto.CardDto;
 import innowise.user_service.service.CardService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/cards")
 public class CardController {
     private final CardService cardService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<CardDto> createCard(@RequestBody @Valid CardDto CardDto) {
@@ -33,20 +43,50 @@ public class CardController {
                 .body(cardService.createCard(CardDto));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkResultDto<CardDto>>> createCards(@RequestBody List<CardDto> cardDtos) {
+        return ResponseEntity.ok(cardService.createCards(cardDtos));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CardDto> getCardById(@PathVariable @NotNull @Positive Long id) {
-        return ResponseEntity.ok(cardService.getCardById(id));
+        CardDto card = cardService.getCardById(id);
+        return ETags.ok(card, card.getVersion());
     }
 
     @PostMapping("/list")
-    public ResponseEntity<List<CardDto>> getCardsByIds(@RequestParam List<Long> ids) {
-        return ResponseEntity.ok(cardService.getCardsByIds(ids));
+    public ResponseEntity<List<CardDto>> getCardsByIds(@RequestParam @Size(max = ListRequests.MAX_IDS) List<Long> ids) {
+        CachedBatch<CardDto> cards = cardService.getCardsByIds(ids);
+        return ResponseEntity.ok()
+                .header(CacheHeaders.CACHE_HITS, String.valueOf(cards.hits()))
+                .header(CacheHeaders.CACHE_MISSES, String.valueOf(cards.misses()))
+                .body(cards.values());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<CardDto> updateCardById(@RequestBody @Valid CardDto CardDto,
-                                                  @PathVariable @NotNull @Positive Long id) {
-        return ResponseEntity.ok(cardService.updateCardById(CardDto, id));
+                                                  @PathVariable @NotNull @Positive Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                  String ifMatch) {
+        CardDto.setVersion(ETags.ifMatchVersion(ifMatch));
+        CardDto updatedCard = cardService.updateCardById(CardDto, id);
+        return ETags.ok(updatedCard, updatedCard.getVersion());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<CardDto> patchCardById(@RequestBody Map<String, Object> patch,
+                                                 @PathVariable @NotNull @Positive Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                 String ifMatch) {
+        CardDto changes = MergePatch.read(objectMapper, patch, CardDto.class);
+        changes.setVersion(ETags.ifMatchVersion(ifMatch));
+        CardDto patchedCard = cardService.patchCardById(id, changes, patch.keySet());
+        return ETags.ok(patchedCard, patchedCard.getVersion());
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkResultDto<CardDto>>> updateCards(@RequestBody List<CardDto> cardDtos) {
+        return ResponseEntity.ok(cardService.updateCards(cardDtos));
     }
 
     @DeleteMapping("/{id}")
@@ -55,4 +95,9 @@ public class CardController {
         cardService.deleteCardById(id);
     }
 
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkResultDto<Void>>> deleteCards(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(cardService.deleteCards(ids));
+    }
+
 }
@@ -0,0 +1,37 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.exception.PreconditionFailedException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong entity tags derived from the optimistic-locking version of a resource. A GET answered with
+ * an ETag is turned into a 304 by Spring when If-None-Match matches, before the body is written.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(String.valueOf(version));
+        }
+        return builder.body(body);
+    }
+
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException(String.format("Entity tag %s does not match", tag));
+        }
+    }
+}
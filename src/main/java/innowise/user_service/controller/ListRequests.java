@@ -0,0 +1,8 @@
+package innowise.user_service.controller;
+
+final class ListRequests {
+    static final int MAX_IDS = 1000;
+
+    private ListRequests() {
+    }
+}
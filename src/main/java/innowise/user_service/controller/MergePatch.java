@@ -0,0 +1,25 @@
+package innowise.user_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import innowise.user_service.exception.InvalidPatchException;
+
+import java.util.Map;
+
+/**
+ * JSON Merge Patch (RFC 7396) bodies are bound as maps so that absent fields and explicit nulls stay
+ * distinguishable; the present fields are then converted to the resource DTO.
+ */
+final class MergePatch {
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private MergePatch() {
+    }
+
+    static <T> T read(ObjectMapper objectMapper, Map<String, Object> patch, Class<T> type) {
+        try {
+            return objectMapper.convertValue(patch, type);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPatchException("Malformed merge patch: " + e.getMessage());
+        }
+    }
+}
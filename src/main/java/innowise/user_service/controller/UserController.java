@@ -1,33 +1,50 @@
 package innowise.user_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import innowise.user_service.cache.CachedBatch;
+import innowise.user_service.dto.BulkResultDto;
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.PageDto;
 import innowise.user_service.dto.UserDto;
+import innowise.user_service.service.CardService;
+import innowise.user_service.service.UserExportService;
 import innowise.user_service.service.UserService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final CardService cardService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody UserDto userDto) {
@@ -35,25 +52,78 @@ public class UserController {
                 .body(userService.createUser(userDto));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkResultDto<UserDto>>> createUsers(@RequestBody List<UserDto> userDtos) {
+        return ResponseEntity.ok(userService.createUsers(userDtos));
+    }
+
+    @GetMapping
+    public ResponseEntity<PageDto<UserDto>> getUsers(@RequestParam(required = false) Long after,
+                                                     @RequestParam(defaultValue = "20") int limit,
+                                                     @RequestParam(required = false) String name,
+                                                     @RequestParam(required = false) String surname) {
+        return ResponseEntity.ok(userService.getUsersPage(after, limit, name, surname));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable @NotNull @Positive Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+        UserDto user = userService.getUserById(id);
+        return ETags.ok(user, user.getVersion());
+    }
+
+    @GetMapping("/{id}/cards")
+    public ResponseEntity<PageDto<CardDto>> getUserCards(@PathVariable @NotNull @Positive Long id,
+                                                         @RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(cardService.getCardsByUserId(id, after, limit));
     }
 
     @PostMapping("/list")
-    public ResponseEntity<List<UserDto>> getUsersByIds(@RequestParam List<Long> ids) {
-        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    public ResponseEntity<List<UserDto>> getUsersByIds(@RequestParam @Size(max = ListRequests.MAX_IDS) List<Long> ids) {
+        CachedBatch<UserDto> users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok()
+                .header(CacheHeaders.CACHE_HITS, String.valueOf(users.hits()))
+                .header(CacheHeaders.CACHE_MISSES, String.valueOf(users.misses()))
+                .body(users.values());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userExportService::exportUsers);
     }
 
     @GetMapping("/email/{email}")
     public ResponseEntity<UserDto> getUserByEmail(@PathVariable @NotBlank @Email String email) {
-        return ResponseEntity.ok(userService.getUserByEmail(email));
+        UserDto user = userService.getUserByEmail(email);
+        return ETags.ok(user, user.getVersion());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<UserDto> updateUserById(@Valid @RequestBody UserDto userDto,
-                                                  @PathVariable @NotNull @Positive Long id) {
-        return ResponseEntity.ok(userService.updateUserById(userDto, id));
+                                                  @PathVariable @NotNull @Positive Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                  String ifMatch) {
+        userDto.setVersion(ETags.ifMatchVersion(ifMatch));
+        UserDto updatedUser = userService.updateUserById(userDto, id);
+        return ETags.ok(updatedUser, updatedUser.getVersion());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<UserDto> patchUserById(@RequestBody Map<String, Object> patch,
+                                                 @PathVariable @NotNull @Positive Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                 String ifMatch) {
+        UserDto changes = MergePatch.read(objectMapper, patch, UserDto.class);
+        changes.setVersion(ETags.ifMatchVersion(ifMatch));
+        UserDto patchedUser = userService.patchUserById(id, changes, patch.keySet());
+        return ETags.ok(patchedUser, patchedUser.getVersion());
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkResultDto<UserDto>>> updateUsers(@RequestBody List<UserDto> userDtos) {
+        return ResponseEntity.ok(userService.updateUsers(userDtos));
     }
 
     @DeleteMapping("/{id}")
@@ -61,4 +131,9 @@ public class UserController {
     public void deleteUserById(@PathVariable @NotNull @Positive Long id) {
         userService.deleteUserById(id);
     }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkResultDto<Void>>> deleteUsers(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(userService.deleteUsers(ids));
+    }
 }
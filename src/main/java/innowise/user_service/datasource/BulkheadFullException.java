@@ -0,0 +1,9 @@
+package innowise.user_service.datasource;
+
+import java.sql.SQLTransientConnectionException;
+
+public class BulkheadFullException extends SQLTransientConnectionException {
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package innowise.user_service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = false;
+
+    private int maxConcurrentCalls = 20;
+
+    private Duration maxWait = Duration.ofMillis(500);
+}
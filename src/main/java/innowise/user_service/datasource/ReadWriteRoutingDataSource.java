@@ -0,0 +1,49 @@
+package innowise.user_service.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Sends connections requested inside read-only transactions to a healthy replica and everything
+ * else to the primary. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched after the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    private final DataSource primary;
+    private final ReplicaPool replicaPool;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicaPool) {
+        this.primary = primary;
+        this.replicaPool = replicaPool;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Optional<Replica> replica = selectReplica();
+        if (replica.isPresent()) {
+            try {
+                return replica.get().getDataSource().getConnection();
+            } catch (SQLException e) {
+                replicaPool.markDown(replica.get());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private Optional<Replica> selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWritesContext.isPinned()) {
+            return Optional.empty();
+        }
+        return replicaPool.select();
+    }
+}
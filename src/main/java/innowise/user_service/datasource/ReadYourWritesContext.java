@@ -0,0 +1,40 @@
+package innowise.user_service.datasource;
+
+import java.util.function.Supplier;
+
+public final class ReadYourWritesContext {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+
+    /**
+     * Runs the action with its reads pinned to the primary and restores the previous pinning afterwards.
+     * Used for loads whose result is cached, so a lagging replica never ends up in the shared cache.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PINNED.remove();
+            } else {
+                PINNED.set(previous);
+            }
+        }
+    }
+}
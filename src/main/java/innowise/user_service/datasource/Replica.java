@@ -0,0 +1,76 @@
+package innowise.user_service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * A read replica that counts as healthy while it answers and its replay lag stays within the
+ * configured limit. A replica that has replayed everything it received reports no lag, however long
+ * ago the last write on the primary was.
+ */
+public class Replica {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    private static final String REPLICATION_LAG_QUERY = """
+            select case
+                when pg_last_wal_receive_lsn() is null or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                else (extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+            end""";
+
+    private final String name;
+    private final DataSource dataSource;
+    private final Duration maxReplicationLag;
+    private volatile boolean healthy;
+
+    public Replica(String name, DataSource dataSource, Duration maxReplicationLag) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.maxReplicationLag = maxReplicationLag;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public void markDown() {
+        healthy = false;
+    }
+
+    public void checkHealth() {
+        try (Connection connection = dataSource.getConnection()) {
+            healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS)
+                    && replicationLagMillis(connection) <= maxReplicationLag.toMillis();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+    }
+
+    private static long replicationLagMillis(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+            return resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+        }
+    }
+
+    public int getActiveConnections() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+}
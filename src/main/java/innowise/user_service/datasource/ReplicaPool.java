@@ -0,0 +1,83 @@
+package innowise.user_service.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaPool implements Closeable {
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration healthCheckInterval;
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaPool(List<Replica> replicas, ReplicaProperties.Selection selection, Duration healthCheckInterval) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public void start() {
+        healthChecker.scheduleWithFixedDelay(this::checkHealth,
+                0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<Replica> select() {
+        List<Replica> healthy = replicas.stream().filter(Replica::isHealthy).toList();
+        if (healthy.isEmpty()) {
+            return Optional.empty();
+        }
+        return switch (selection) {
+            case ROUND_ROBIN -> Optional.of(healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())));
+            case LEAST_CONNECTIONS -> healthy.stream().min(Comparator.comparingInt(Replica::getActiveConnections));
+        };
+    }
+
+    public void markDown(Replica replica) {
+        if (replica.isHealthy()) {
+            log.warn("Replica {} failed, routing reads to the primary until it recovers", replica.getName());
+        }
+        replica.markDown();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            replica.checkHealth();
+            if (wasHealthy != replica.isHealthy()) {
+                log.info("Replica {} is now {}", replica.getName(), replica.isHealthy() ? "up" : "down");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}", replica.getName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package innowise.user_service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Replicas replaying further behind than this are taken out of rotation until they catch up.
+     */
+    private Duration maxReplicationLag = Duration.ofSeconds(5);
+
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private int maximumPoolSize = 20;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+
+    @Data
+    public static class Node {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
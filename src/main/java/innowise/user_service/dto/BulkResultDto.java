@@ -0,0 +1,32 @@
+package innowise.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkResultDto<T> {
+
+    private int index;
+
+    private int status;
+
+    private T body;
+
+    private String error;
+
+    public static <T> BulkResultDto<T> success(int index, HttpStatus status, T body) {
+        return new BulkResultDto<>(index, status.value(), body, null);
+    }
+
+    public static <T> BulkResultDto<T> failure(int index, HttpStatus status, String error) {
+        return new BulkResultDto<>(index, status.value(), null, error);
+    }
+}
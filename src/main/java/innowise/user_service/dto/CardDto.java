@@ -8,13 +8,18 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.time.LocalDate;
 
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class CardDto {
+public class CardDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     private Long id;
 
@@ -30,4 +35,6 @@ public class CardDto {
     @NotNull(message = "Expiration date cannot be null")
     @Future(message = "Expiration date must be in the future")
     private LocalDate expirationDate;
+
+    private Long version;
 }
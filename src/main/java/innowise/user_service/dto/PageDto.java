@@ -0,0 +1,31 @@
+package innowise.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDto<T> {
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> items;
+
+    private Long nextCursor;
+
+    public static int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    public static <E, T> PageDto<T> of(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+        return new PageDto<>(page.stream().map(mapper).toList(), hasNext ? idOf.apply(page.getLast()) : null);
+    }
+}
@@ -2,18 +2,24 @@ package innowise.user_service.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
@@ -21,18 +27,21 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
+@SQLRestriction("deleted_at is null")
 @Table(name = "card_info")
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_info_id_seq")
+    @SequenceGenerator(name = "card_info_id_seq", sequenceName = "card_info_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @Column(name = "number", nullable = false, length = 16, unique = true)
+    @Column(name = "number", nullable = false, length = 16)
     @Size(min = 16, max = 16, message = "Card number must be 16 characters long")
     private String number;
 
@@ -41,4 +50,11 @@ public class Card {
 
     @Column(name = "expiration_date", nullable = false)
     private LocalDate expirationDate;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
 }
@@ -0,0 +1,54 @@
+package innowise.user_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Mapping of the outbox table. Rows are written and drained with plain JDBC by the outbox package;
+ * the entity exists so the schema stays declared next to the other tables.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_partition_id", columnList = "partition_no, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "partition_no", nullable = false)
+    private Integer partition;
+
+    @Column(name = "aggregate_type", length = 16, nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "event_type", length = 32, nullable = false)
+    private String eventType;
+
+    @Column(name = "payload", columnDefinition = "jsonb")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "timestamp with time zone default now()")
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package innowise.user_service.exception;
+
+public class CardAlreadyExistsException extends RuntimeException {
+    public CardAlreadyExistsException(String message) {
+        super(message);
+    }
+}
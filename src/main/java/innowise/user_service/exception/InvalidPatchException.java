@@ -0,0 +1,7 @@
+package innowise.user_service.exception;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
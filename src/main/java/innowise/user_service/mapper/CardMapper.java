@@ -16,10 +16,14 @@ public interface CardMapper {
     CardDto toDto(Card card);
 
     @Mapping(target = "user", source = "userId", qualifiedByName = "userIdToUser")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Card toEntity(CardDto cardDto);
 
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateEntityFromDto(CardDto CardDto, @MappingTarget Card card);
 
     @Named("userIdToUser")
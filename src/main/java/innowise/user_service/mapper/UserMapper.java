@@ -19,10 +19,14 @@ public interface UserMapper {
     UserDto toDto(User user);
 
     @Mapping(target = "cards", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     User toEntity(UserDto userDto);
 
     @Mapping(target = "cards", ignore = true)
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateEntityFromDto(UserDto userDto, @MappingTarget User user);
 
     @Named("mapCards")
@@ -0,0 +1,21 @@
+package innowise.user_service.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxMessage> published = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        published.addAll(messages);
+    }
+
+    public synchronized List<OutboxMessage> getPublished() {
+        return List.copyOf(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
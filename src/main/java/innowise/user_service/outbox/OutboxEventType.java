@@ -0,0 +1,25 @@
+package innowise.user_service.outbox;
+
+public enum OutboxEventType {
+    USER_CREATED(AggregateType.USER),
+    USER_UPDATED(AggregateType.USER),
+    USER_DELETED(AggregateType.USER),
+    CARD_CREATED(AggregateType.CARD),
+    CARD_UPDATED(AggregateType.CARD),
+    CARD_DELETED(AggregateType.CARD);
+
+    private final AggregateType aggregateType;
+
+    OutboxEventType(AggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public AggregateType getAggregateType() {
+        return aggregateType;
+    }
+
+    public enum AggregateType {
+        USER,
+        CARD
+    }
+}
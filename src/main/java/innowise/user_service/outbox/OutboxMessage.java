@@ -0,0 +1,13 @@
+package innowise.user_service.outbox;
+
+import java.time.Instant;
+
+public record OutboxMessage(long id,
+                            int partition,
+                            String aggregateType,
+                            long aggregateId,
+                            Long userId,
+                            String eventType,
+                            String payload,
+                            Instant createdAt) {
+}
@@ -0,0 +1,47 @@
+package innowise.user_service.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    private Sink sink = Sink.REDIS;
+
+    private int partitions = 16;
+
+    private int insertBatchSize = 500;
+
+    /**
+     * Namespace of the transaction-scoped advisory locks that serialize outbox writes per user.
+     */
+    private int orderingLockNamespace = 0x0B0D;
+
+    private String streamKey = "user-service:events";
+
+    private long streamMaxLength = 1_000_000;
+
+    private Relay relay = new Relay();
+
+    public enum Sink {
+        REDIS,
+        MEMORY
+    }
+
+    @Data
+    public static class Relay {
+
+        private boolean enabled = true;
+
+        private int workers = 4;
+
+        private int batchSize = 1000;
+
+        private Duration pollInterval = Duration.ofMillis(100);
+
+        private int lockNamespace = 0x0B0C;
+    }
+}
@@ -0,0 +1,160 @@
+package innowise.user_service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains outbox_event into an {@link OutboxSink}. Events are hashed by user id into partitions and
+ * each partition is drained by at most one worker cluster-wide (transaction-scoped advisory lock),
+ * oldest id first. {@link OutboxWriter} allocates ids per user in commit order, so delivery is
+ * ordered per user. Delivery is at-least-once: rows are deleted in the same transaction that
+ * published them.
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+    private static final String LOCK_SQL = "select pg_try_advisory_xact_lock(?, ?)";
+    private static final String SELECT_SQL = """
+            select id, partition_no, aggregate_type, aggregate_id, user_id, event_type, payload::text, created_at
+            from outbox_event
+            where partition_no = ?
+            order by id
+            limit ?
+            for update skip locked""";
+    private static final String DELETE_SQL = "delete from outbox_event where id = any(?)";
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getInt("partition_no"),
+            rs.getString("aggregate_type"),
+            rs.getLong("aggregate_id"),
+            rs.getObject("user_id", Long.class),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final Counter publishedEvents;
+    private final AtomicInteger workerIds = new AtomicInteger();
+
+    private volatile ExecutorService workers;
+    private volatile boolean running;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxSink sink,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sink = sink;
+        this.properties = properties;
+        this.publishedEvents = Counter.builder("outbox.events.published")
+                .description("Outbox events handed to the sink")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        int workerCount = Math.min(properties.getRelay().getWorkers(), properties.getPartitions());
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-" + workerIds.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int worker = 0; worker < workerCount; worker++) {
+            int first = worker;
+            workers.submit(() -> drainLoop(first, workerCount));
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ExecutorService current = workers;
+        if (current != null) {
+            current.shutdownNow();
+            try {
+                current.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int drainPartition(int partition) {
+        Integer published = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class,
+                    properties.getRelay().getLockNamespace(), partition);
+            if (!Boolean.TRUE.equals(locked)) {
+                return 0;
+            }
+            List<OutboxMessage> messages = jdbcTemplate.query(SELECT_SQL, MESSAGE_MAPPER,
+                    partition, properties.getRelay().getBatchSize());
+            if (messages.isEmpty()) {
+                return 0;
+            }
+            sink.publish(messages);
+            delete(messages);
+            return messages.size();
+        });
+        int count = published == null ? 0 : published;
+        publishedEvents.increment(count);
+        return count;
+    }
+
+    private void drainLoop(int firstPartition, int stride) {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            int published = 0;
+            for (int partition = firstPartition; partition < properties.getPartitions(); partition += stride) {
+                try {
+                    published += drainPartition(partition);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to relay outbox partition {}", partition, e);
+                }
+            }
+            if (published == 0) {
+                try {
+                    Thread.sleep(properties.getRelay().getPollInterval().toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void delete(List<OutboxMessage> messages) {
+        List<Long> ids = new ArrayList<>(messages.size());
+        messages.forEach(message -> ids.add(message.id()));
+        jdbcTemplate.update(connection -> {
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            var statement = connection.prepareStatement(DELETE_SQL);
+            statement.setArray(1, array);
+            return statement;
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package innowise.user_service.outbox;
+
+import java.util.List;
+
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events from one partition in id order. Must either deliver the whole batch
+     * or throw, in which case the relay rolls back and retries it.
+     */
+    void publish(List<OutboxMessage> messages);
+}
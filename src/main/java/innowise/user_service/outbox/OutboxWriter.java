@@ -0,0 +1,123 @@
+package innowise.user_service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects change events during a transaction and inserts them into outbox_event right before
+ * commit, after the entity changes are flushed. Before allocating outbox ids it takes a
+ * transaction-scoped advisory lock per user, so two transactions writing events for the same user
+ * get their ids in commit order even when they touch different rows (say, two cards of one user).
+ */
+@RequiredArgsConstructor
+public class OutboxWriter {
+    private static final String INSERT_SQL = """
+            insert into outbox_event (partition_no, aggregate_type, aggregate_id, user_id, event_type, payload)
+            values (?, ?, ?, ?, ?, cast(? as jsonb))""";
+    private static final String LOCK_SQL = """
+            select pg_advisory_xact_lock(?, k.key)
+            from unnest(?::int[]) with ordinality as k(key, position)
+            order by k.position""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+
+    public void append(OutboxEventType type, Long aggregateId, Long userId, Object payload) {
+        long orderingKey = userId == null ? aggregateId : userId;
+        pendingEvents().add(new PendingEvent(
+                Math.floorMod(Long.hashCode(orderingKey), properties.getPartitions()),
+                Long.hashCode(orderingKey), type, aggregateId, userId, toJson(payload)));
+    }
+
+    private List<PendingEvent> pendingEvents() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Outbox events must be written inside a transaction");
+        }
+        @SuppressWarnings("unchecked")
+        List<PendingEvent> events = (List<PendingEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            List<PendingEvent> newEvents = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, newEvents);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(newEvents);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+                }
+            });
+            events = newEvents;
+        }
+        return events;
+    }
+
+    private void insert(List<PendingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        lockOrderingKeys(events);
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, properties.getInsertBatchSize(), (ps, event) -> {
+            ps.setInt(1, event.partition());
+            ps.setString(2, event.type().getAggregateType().name());
+            ps.setLong(3, event.aggregateId());
+            ps.setObject(4, event.userId(), Types.BIGINT);
+            ps.setString(5, event.type().name());
+            if (event.payload() == null) {
+                ps.setNull(6, Types.VARCHAR);
+            } else {
+                ps.setString(6, event.payload());
+            }
+        });
+    }
+
+    /**
+     * Locks in ascending key order so writers sharing several users cannot deadlock. Hash collisions
+     * only make unrelated users wait for each other.
+     */
+    private void lockOrderingKeys(List<PendingEvent> events) {
+        Integer[] keys = events.stream()
+                .map(PendingEvent::lockKey)
+                .distinct()
+                .sorted()
+                .toArray(Integer[]::new);
+        jdbcTemplate.query(LOCK_SQL, ps -> {
+            ps.setInt(1, properties.getOrderingLockNamespace());
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", keys));
+        }, resultSet -> {
+        });
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload", e);
+        }
+    }
+
+    private record PendingEvent(int partition,
+                                int lockKey,
+                                OutboxEventType type,
+                                Long aggregateId,
+                                Long userId,
+                                String payload) {
+    }
+}
@@ -0,0 +1,64 @@
+package innowise.user_service.outbox;
+
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RedisStreamOutboxSink implements OutboxSink {
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKeyPrefix;
+    private final RedisStreamCommands.XAddOptions addOptions;
+
+    public RedisStreamOutboxSink(StringRedisTemplate redisTemplate, String streamKeyPrefix, long maxStreamLength) {
+        this.redisTemplate = redisTemplate;
+        this.streamKeyPrefix = streamKeyPrefix;
+        this.addOptions = RedisStreamCommands.XAddOptions.maxlen(maxStreamLength).approximateTrimming(true);
+    }
+
+    public String streamKey(int partition) {
+        return streamKeyPrefix + ":" + partition;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (OutboxMessage message : messages) {
+                MapRecord<byte[], byte[], byte[]> record = StreamRecords.newRecord()
+                        .in(bytes(streamKey(message.partition())))
+                        .ofMap(fields(message));
+                connection.streamCommands().xAdd(record, addOptions);
+            }
+            return null;
+        });
+    }
+
+    private static Map<byte[], byte[]> fields(OutboxMessage message) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(bytes("id"), bytes(String.valueOf(message.id())));
+        fields.put(bytes("type"), bytes(message.eventType()));
+        fields.put(bytes("aggregateType"), bytes(message.aggregateType()));
+        fields.put(bytes("aggregateId"), bytes(String.valueOf(message.aggregateId())));
+        if (message.userId() != null) {
+            fields.put(bytes("userId"), bytes(String.valueOf(message.userId())));
+        }
+        fields.put(bytes("createdAt"), bytes(message.createdAt().toString()));
+        if (message.payload() != null) {
+            fields.put(bytes("payload"), bytes(message.payload()));
+        }
+        return fields;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package innowise.user_service.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Rate limits the user and card endpoints per client and endpoint. Clients are told apart by the
+ * authenticated principal, otherwise by the remote address. The client id header is only honoured on
+ * requests coming from a configured trusted gateway, since anyone else could rotate it at will.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String IDS_PARAMETER = "ids";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitProperties.Limit limit = limitFor(request);
+        String key = properties.getKeyPrefix() + ":" + limit.getName() + ":" + clientOf(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(key, limit, costOf(request, limit));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejections(limit).increment();
+        long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(String.format("Rate limit exceeded, retry in %d seconds", retryAfterSeconds));
+    }
+
+    private RateLimitProperties.Limit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitProperties.Limit> endpoints = properties.getEndpoints();
+        for (RateLimitProperties.Limit endpoint : endpoints) {
+            if ((endpoint.getMethod() == null || endpoint.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(endpoint.getPath(), path)) {
+                return endpoint;
+            }
+        }
+        return properties.getDefaultLimit();
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        if (properties.getTrustedProxies().contains(remoteAddress)) {
+            String clientId = request.getHeader(properties.getClientIdHeader());
+            if (StringUtils.hasText(clientId)) {
+                return "client:" + clientId;
+            }
+        }
+        return "address:" + remoteAddress;
+    }
+
+    private static long costOf(HttpServletRequest request, RateLimitProperties.Limit limit) {
+        if (limit.getIdsPerToken() <= 0) {
+            return 1;
+        }
+        String[] values = request.getParameterValues(IDS_PARAMETER);
+        long ids = 0;
+        if (values != null) {
+            for (String value : values) {
+                ids += StringUtils.commaDelimitedListToStringArray(value).length;
+            }
+        }
+        long cost = Math.max(1, (ids + limit.getIdsPerToken() - 1) / limit.getIdsPerToken());
+        return Math.min(cost, limit.getCapacity());
+    }
+
+    private Counter rejections(RateLimitProperties.Limit limit) {
+        return Counter.builder("rate.limit.rejections")
+                .tag("limit", limit.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package innowise.user_service.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * Remote addresses of the gateways allowed to name the client in the client id header. Requests
+     * from anywhere else are keyed by their own address.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private String keyPrefix = "user-service:rate-limit";
+
+    /**
+     * Tokens taken from Redis on top of the current request and spent locally, so that only every
+     * lease-size-th request of a busy client needs a Redis round trip.
+     */
+    private int leaseSize = 10;
+
+    /**
+     * How long locally leased tokens stay usable. Unused ones are dropped, never returned.
+     */
+    private Duration leaseTimeToLive = Duration.ofSeconds(1);
+
+    private Limit defaultLimit = new Limit("default", null, null, 200, 100, 0);
+
+    private List<Limit> endpoints = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        private String name;
+
+        private String method;
+
+        private String path;
+
+        private long capacity;
+
+        private double refillPerSecond;
+
+        /**
+         * When positive, a request carrying an ids parameter costs one token per this many ids.
+         */
+        private int idsPerToken;
+    }
+}
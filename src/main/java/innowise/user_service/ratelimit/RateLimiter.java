@@ -0,0 +1,81 @@
+package innowise.user_service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies the Redis token buckets with a local pre-check. Tokens are leased from Redis in batches and
+ * spent locally, and a rejection is remembered until its retry time, so both busy and throttled clients
+ * mostly stay off Redis. Leasing only ever takes tokens early, so it can under-admit by at most a lease
+ * per node but never over-admit. When Redis is unavailable requests are let through.
+ */
+@Slf4j
+public class RateLimiter {
+    private final RedisTokenBucket tokenBucket;
+    private final int leaseSize;
+    private final long leaseTimeToLiveNanos;
+    private final Cache<String, Lease> leases;
+
+    public RateLimiter(RedisTokenBucket tokenBucket, int leaseSize, Duration leaseTimeToLive) {
+        this.tokenBucket = tokenBucket;
+        this.leaseSize = leaseSize;
+        this.leaseTimeToLiveNanos = leaseTimeToLive.toNanos();
+        this.leases = Caffeine.newBuilder()
+                .expireAfterAccess(leaseTimeToLive.multipliedBy(2))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public Decision tryAcquire(String key, RateLimitProperties.Limit limit, long cost) {
+        Lease lease = leases.get(key, ignored -> new Lease());
+        lease.lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now < lease.blockedUntil) {
+                return Decision.rejected(TimeUnit.NANOSECONDS.toMillis(lease.blockedUntil - now));
+            }
+            if (now < lease.expiresAt && lease.tokens >= cost) {
+                lease.tokens -= cost;
+                return Decision.ALLOWED;
+            }
+            RedisTokenBucket.Grant grant;
+            try {
+                grant = tokenBucket.take(key, limit, cost + leaseSize, cost);
+            } catch (DataAccessException e) {
+                log.warn("Rate limit check for {} failed, letting the request through", key, e);
+                return Decision.ALLOWED;
+            }
+            if (grant.tokens() < cost) {
+                lease.tokens = 0;
+                lease.blockedUntil = now + TimeUnit.MILLISECONDS.toNanos(grant.retryAfterMillis());
+                return Decision.rejected(grant.retryAfterMillis());
+            }
+            lease.tokens = grant.tokens() - cost;
+            lease.expiresAt = now + leaseTimeToLiveNanos;
+            return Decision.ALLOWED;
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    public record Decision(boolean allowed, long retryAfterMillis) {
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        static Decision rejected(long retryAfterMillis) {
+            return new Decision(false, retryAfterMillis);
+        }
+    }
+
+    private static final class Lease {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long tokens;
+        private long expiresAt;
+        private long blockedUntil;
+    }
+}
@@ -0,0 +1,39 @@
+package innowise.user_service.ratelimit;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Token buckets kept in Redis hashes and refilled lazily by a Lua script, so that checking and taking
+ * tokens is a single atomic round trip shared by every node.
+ */
+public class RedisTokenBucket {
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token-bucket.lua"), List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisTokenBucket(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Takes between {@code required} and {@code wanted} tokens, or none when fewer than {@code required}
+     * are available.
+     */
+    public Grant take(String key, RateLimitProperties.Limit limit, long wanted, long required) {
+        List<?> reply = stringRedisTemplate.execute(SCRIPT, List.of(key),
+                String.valueOf(limit.getCapacity()),
+                String.valueOf(limit.getRefillPerSecond() / 1000.0),
+                String.valueOf(wanted),
+                String.valueOf(required));
+        return new Grant(((Number) reply.get(0)).longValue(), ((Number) reply.get(1)).longValue());
+    }
+
+    public record Grant(long tokens, long retryAfterMillis) {
+    }
+}
@@ -0,0 +1,16 @@
+package innowise.user_service.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Soft-deletes cards and bumps their owners' versions in a single statement, without loading entities
+ * or checking existence first. The purger removes the marked rows later.
+ */
+public interface CardDeleteOperations {
+
+    /**
+     * @return the owner id (possibly null) of every card that existed, keyed by card id
+     */
+    Map<Long, Long> deleteCardsReturningOwners(Collection<Long> ids);
+}
@@ -0,0 +1,39 @@
+package innowise.user_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CardDeleteOperationsImpl implements CardDeleteOperations {
+    private static final String DELETE_CARDS = """
+            with deleted as (
+                update card_info set deleted_at = now(), version = version + 1
+                where id in (:ids) and deleted_at is null
+                returning id, user_id
+            ), owners as (
+                update users u set version = u.version + 1
+                where u.id in (select user_id from deleted)
+            )
+            select id, user_id from deleted
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<Long, Long> deleteCardsReturningOwners(Collection<Long> ids) {
+        Map<Long, Long> ownersById = new HashMap<>();
+        if (ids.isEmpty()) {
+            return ownersById;
+        }
+        jdbcTemplate.query(DELETE_CARDS, new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    ownersById.put(rs.getLong("id"), rs.getObject("user_id", Long.class));
+                });
+        return ownersById;
+    }
+}
@@ -0,0 +1,16 @@
+package innowise.user_service.repository;
+
+import innowise.user_service.entity.Card;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Column-targeted partial update of a card: a single UPDATE ... RETURNING that writes only the given
+ * columns, bumps the version and returns the new row. An empty result means the card does not exist
+ * or is not at {@code expectedVersion}.
+ */
+public interface CardPatchOperations {
+
+    Optional<Card> patchCard(long id, Map<String, Object> columns, Long expectedVersion);
+}
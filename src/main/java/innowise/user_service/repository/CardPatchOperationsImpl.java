@@ -0,0 +1,47 @@
+package innowise.user_service.repository;
+
+import innowise.user_service.entity.Card;
+import innowise.user_service.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class CardPatchOperationsImpl implements CardPatchOperations {
+    private static final String RETURNING = "returning c.id, c.user_id, c.number, c.holder, c.expiration_date, c.version";
+
+    private static final RowMapper<Card> ROW_MAPPER = (rs, rowNum) -> {
+        Long userId = rs.getObject("user_id", Long.class);
+        return Card.builder()
+                .id(rs.getLong("id"))
+                .user(userId == null ? null : User.builder().id(userId).build())
+                .number(rs.getString("number"))
+                .holder(rs.getString("holder"))
+                .expirationDate(rs.getObject("expiration_date", LocalDate.class))
+                .version(rs.getLong("version"))
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Card> patchCard(long id, Map<String, Object> columns, Long expectedVersion) {
+        String assignments = columns.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", "));
+        String sql = "update card_info c set " + assignments + ", version = c.version + 1"
+                + " where c.id = :id and c.deleted_at is null"
+                + (expectedVersion == null ? "" : " and c.version = :expectedVersion")
+                + " " + RETURNING;
+        MapSqlParameterSource parameters = new MapSqlParameterSource(columns)
+                .addValue("id", id)
+                .addValue("expectedVersion", expectedVersion);
+        return jdbcTemplate.query(sql, parameters, ROW_MAPPER).stream().findFirst();
+    }
+}
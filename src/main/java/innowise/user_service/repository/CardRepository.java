@@ -1,10 +1,21 @@
 package innowise.user_service.repository;
 
 import innowise.user_service.entity.Card;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 @Repository
-public interface CardRepository extends JpaRepository<Card, Long> {
+public interface CardRepository extends JpaRepository<Card, Long>, CardPatchOperations, CardDeleteOperations {
+
+    List<Card> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long after, Limit limit);
 
+    @Query("select c.number from Card c where c.number in :numbers")
+    Set<String> findExistingNumbers(@Param("numbers") Collection<String> numbers);
 }
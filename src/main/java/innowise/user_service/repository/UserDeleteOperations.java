@@ -0,0 +1,18 @@
+package innowise.user_service.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Soft-deletes users together with their cards in a single statement, without loading entities or
+ * checking existence first. The rows are only marked with {@code deleted_at}, which hides them from
+ * every query; the purger removes them later. The returned rows tell which users existed and what to evict.
+ */
+public interface UserDeleteOperations {
+
+    DeletedUsers deleteUsersWithCards(Collection<Long> ids);
+
+    record DeletedUsers(Map<Long, String> emailsById, Set<Long> cardIds) {
+    }
+}
@@ -0,0 +1,63 @@
+package innowise.user_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class UserDeleteOperationsImpl implements UserDeleteOperations {
+    /**
+     * Taken in its own statement so the delete below gets its snapshot only after every card insert
+     * that already locked one of these owners has committed, and soft-deletes those cards too.
+     */
+    private static final String LOCK_USERS = """
+            select id from users
+            where id in (:ids) and deleted_at is null
+            order by id
+            for update
+            """;
+    private static final String DELETE_USERS = """
+            with deleted_users as (
+                update users set deleted_at = now(), version = version + 1
+                where id in (:ids) and deleted_at is null
+                returning id, email
+            ), deleted_cards as (
+                update card_info c set deleted_at = now(), version = c.version + 1
+                from deleted_users u
+                where c.user_id in (:ids) and c.user_id = u.id and c.deleted_at is null
+                returning c.id
+            )
+            select id as user_id, email, null::bigint as card_id from deleted_users
+            union all
+            select null, null, id from deleted_cards
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public DeletedUsers deleteUsersWithCards(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new DeletedUsers(Map.of(), Set.of());
+        }
+        Map<Long, String> emailsById = new LinkedHashMap<>();
+        Set<Long> cardIds = new HashSet<>();
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.queryForList(LOCK_USERS, parameters, Long.class);
+        jdbcTemplate.query(DELETE_USERS, parameters,
+                rs -> {
+                    Long cardId = rs.getObject("card_id", Long.class);
+                    if (cardId == null) {
+                        emailsById.put(rs.getLong("user_id"), rs.getString("email"));
+                    } else {
+                        cardIds.add(cardId);
+                    }
+                });
+        return new DeletedUsers(emailsById, cardIds);
+    }
+}
@@ -0,0 +1,19 @@
+package innowise.user_service.repository;
+
+import innowise.user_service.entity.User;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Column-targeted partial update of a user: a single UPDATE ... RETURNING that writes only the given
+ * columns, bumps the version and returns the new row with its card ids and the email it replaced.
+ * An empty result means the user does not exist or is not at {@code expectedVersion}.
+ */
+public interface UserPatchOperations {
+
+    Optional<PatchedUser> patchUser(long id, Map<String, Object> columns, Long expectedVersion);
+
+    record PatchedUser(User user, String previousEmail) {
+    }
+}
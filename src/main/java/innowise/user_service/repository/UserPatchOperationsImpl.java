@@ -0,0 +1,66 @@
+package innowise.user_service.repository;
+
+import innowise.user_service.entity.Card;
+import innowise.user_service.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class UserPatchOperationsImpl implements UserPatchOperations {
+    private static final String RETURNING = """
+            returning u.id, u.name, u.surname, u.email, u.birth_date, u.version, previous.email as previous_email,
+                      array(select c.id from card_info c where c.user_id = :id and c.deleted_at is null order by c.id)
+                          as card_ids""";
+
+    private static final RowMapper<PatchedUser> ROW_MAPPER = (rs, rowNum) -> {
+        User user = User.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .surname(rs.getString("surname"))
+                .email(rs.getString("email"))
+                .birthDate(rs.getObject("birth_date", LocalDate.class))
+                .version(rs.getLong("version"))
+                .cards(cards(rs.getArray("card_ids")))
+                .build();
+        return new PatchedUser(user, rs.getString("previous_email"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<PatchedUser> patchUser(long id, Map<String, Object> columns, Long expectedVersion) {
+        String assignments = columns.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", "));
+        String sql = "update users u set " + assignments + ", version = u.version + 1"
+                + " from (select id, email from users where id = :id and deleted_at is null for update) previous"
+                + " where u.id = previous.id"
+                + (expectedVersion == null ? "" : " and u.version = :expectedVersion")
+                + " " + RETURNING;
+        MapSqlParameterSource parameters = new MapSqlParameterSource(columns)
+                .addValue("id", id)
+                .addValue("expectedVersion", expectedVersion);
+        return jdbcTemplate.query(sql, parameters, ROW_MAPPER).stream().findFirst();
+    }
+
+    private static List<Card> cards(Array ids) throws SQLException {
+        List<Card> cards = new ArrayList<>();
+        if (ids != null) {
+            for (Long cardId : (Long[]) ids.getArray()) {
+                cards.add(Card.builder().id(cardId).build());
+            }
+        }
+        return cards;
+    }
+}
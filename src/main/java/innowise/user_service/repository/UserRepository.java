@@ -1,13 +1,46 @@
 package innowise.user_service.repository;
 
 import innowise.user_service.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserPatchOperations, UserDeleteOperations {
 
-    Optional<User> findByEmail(String email);
+    @EntityGraph(attributePaths = "cards")
+    Optional<User> findWithCardsById(Long id);
+
+    @EntityGraph(attributePaths = "cards")
+    Optional<User> findWithCardsByEmail(String email);
+
+    @EntityGraph(attributePaths = "cards")
+    List<User> findAllWithCardsByIdIn(Collection<Long> ids);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    List<User> findByNameAndIdGreaterThanOrderByIdAsc(String name, Long after, Limit limit);
+
+    List<User> findBySurnameAndIdGreaterThanOrderByIdAsc(String surname, Long after, Limit limit);
+
+    List<User> findByNameAndSurnameAndIdGreaterThanOrderByIdAsc(String name, String surname, Long after, Limit limit);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.version = u.version + 1 where u.id in :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
 }
@@ -1,65 +1,355 @@
 package innowise.user_service.service;
 
+import innowise.user_service.bloom.IdFilters;
+import innowise.user_service.cache.BatchCacheReader;
+import innowise.user_service.cache.CachedBatch;
+import innowise.user_service.cache.SyncCacheReader;
+import innowise.user_service.datasource.ReadYourWritesContext;
+import innowise.user_service.dto.BulkResultDto;
 import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.PageDto;
 import innowise.user_service.entity.Card;
+import innowise.user_service.exception.CardAlreadyExistsException;
+import innowise.user_service.exception.InvalidPatchException;
+import innowise.user_service.exception.PreconditionFailedException;
 import innowise.user_service.mapper.CardMapper;
+import innowise.user_service.outbox.OutboxEventType;
+import innowise.user_service.outbox.OutboxWriter;
 import innowise.user_service.repository.CardRepository;
+import innowise.user_service.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "service.calls", histogram = true)
 public class CardService {
+    private static final String CARD_CACHE = "card";
+    private static final String USER_CACHE = "user";
+    private static final String USER_CARDS_CACHE = "userCards";
+    private static final Map<String, String> PATCHABLE_COLUMNS = Map.of(
+            "number", "number",
+            "holder", "holder",
+            "expirationDate", "expiration_date");
+
     private final CardRepository cardRepository;
+    private final UserRepository userRepository;
     private final CardMapper cardMapper;
+    private final DtoValidator dtoValidator;
+    private final CacheManager cacheManager;
+    private final OutboxWriter outboxWriter;
+    private final IdFilters idFilters;
 
     @Transactional
     public CardDto createCard(CardDto cardDto) {
-        Card card = cardMapper.toEntity(cardDto);
-        Card updatedCard = cardRepository.save(card);
-        return cardMapper.toDto(updatedCard);
+        userRepository.incrementVersions(Collections.singleton(cardDto.getUserId()));
+        if (!userRepository.existsById(cardDto.getUserId())) {
+            throw new EntityNotFoundException(String.format("There is no user with id %d", cardDto.getUserId()));
+        }
+        Card card = toEntity(cardDto);
+        Card updatedCard = saveUniqueNumber(card);
+        idFilters.cardsCreated(List.of(updatedCard.getId()));
+        evictOwners(Collections.singleton(cardDto.getUserId()));
+        CardDto createdCard = cardMapper.toDto(updatedCard);
+        outboxWriter.append(OutboxEventType.CARD_CREATED, createdCard.getId(), createdCard.getUserId(), createdCard);
+        return createdCard;
+    }
+
+    @Transactional
+    public List<BulkResultDto<CardDto>> createCards(List<CardDto> cardDtos) {
+        Set<Long> existingUserIds = userRepository.findExistingIds(
+                cardDtos.stream().map(CardDto::getUserId).filter(Objects::nonNull).distinct().toList());
+        Set<String> takenNumbers = new HashSet<>(cardRepository.findExistingNumbers(
+                cardDtos.stream().map(CardDto::getNumber).filter(Objects::nonNull).toList()));
+        List<BulkResultDto<CardDto>> results = new ArrayList<>(cardDtos.size());
+        Map<Integer, Card> created = new LinkedHashMap<>();
+        for (int index = 0; index < cardDtos.size(); index++) {
+            CardDto cardDto = cardDtos.get(index);
+            Optional<String> violations = dtoValidator.validate(cardDto);
+            if (violations.isPresent()) {
+                results.add(BulkResultDto.failure(index, HttpStatus.BAD_REQUEST, violations.get()));
+            } else if (!existingUserIds.contains(cardDto.getUserId())) {
+                results.add(BulkResultDto.failure(index, HttpStatus.NOT_FOUND,
+                        String.format("There is no user with id %d", cardDto.getUserId())));
+            } else if (!takenNumbers.add(cardDto.getNumber())) {
+                results.add(BulkResultDto.failure(index, HttpStatus.CONFLICT,
+                        String.format("Card with number %s already exists", cardDto.getNumber())));
+            } else {
+                created.put(index, toEntity(cardDto));
+                results.add(null);
+            }
+        }
+        cardRepository.saveAll(created.values());
+        cardRepository.flush();
+        idFilters.cardsCreated(created.values().stream().map(Card::getId).toList());
+        Set<Long> owners = created.values().stream().map(card -> card.getUser().getId()).collect(Collectors.toSet());
+        if (!owners.isEmpty()) {
+            userRepository.incrementVersions(owners);
+        }
+        evictOwners(owners);
+        created.forEach((index, card) -> {
+            CardDto createdCard = cardMapper.toDto(card);
+            outboxWriter.append(OutboxEventType.CARD_CREATED, createdCard.getId(), createdCard.getUserId(), createdCard);
+            results.set(index, BulkResultDto.success(index, HttpStatus.CREATED, createdCard));
+        });
+        return results;
     }
 
-    @Transactional(readOnly = true)
     public CardDto getCardById(Long id) {
+        if (idFilters.cardMissing(id)) {
+            CardDto card = ReadYourWritesContext.onPrimary(() -> loadCard(id));
+            idFilters.cardFound(id);
+            return card;
+        }
+        return SyncCacheReader.get(cacheManager.getCache(CARD_CACHE), id, () -> loadCard(id));
+    }
+
+    private CardDto loadCard(Long id) {
         return cardRepository.findById(id)
                 .map(cardMapper::toDto)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("There is no card with id %d", id)));
     }
 
-    @Transactional(readOnly = true)
-    public List<CardDto> getCardsByIds(List<Long> ids) {
-        return cardRepository.findAllById(ids).stream()
+    public CachedBatch<CardDto> getCardsByIds(List<Long> ids) {
+        return BatchCacheReader.getAll(cacheManager.getCache(CARD_CACHE), ids, CardDto.class,
+                missingIds -> cardRepository.findAllById(missingIds).stream()
+                        .collect(Collectors.toMap(Card::getId, cardMapper::toDto)));
+    }
+
+    /**
+     * Pages are seeked in SQL. A first page that holds all of the user's cards is cached as the whole list
+     * and serves any later page request; users with more cards than one page are never cached and always
+     * page through the database.
+     */
+    @SuppressWarnings("unchecked")
+    public PageDto<CardDto> getCardsByUserId(Long userId, Long after, int limit) {
+        long cursor = after == null ? 0 : after;
+        int pageSize = PageDto.clampLimit(limit);
+        boolean filtered = idFilters.userMissing(userId);
+        Cache cache = cacheManager.getCache(USER_CARDS_CACHE);
+        List<CardDto> cachedCards = filtered ? null : cache.get(userId, List.class);
+        if (cachedCards != null) {
+            List<CardDto> cards = cachedCards.stream()
+                    .filter(card -> card.getId() > cursor)
+                    .limit(pageSize + 1L)
+                    .toList();
+            return PageDto.of(cards, pageSize, CardDto::getId, Function.identity());
+        }
+        List<CardDto> cards = ReadYourWritesContext.onPrimary(() ->
+                        cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursor, Limit.of(pageSize + 1)))
+                .stream()
                 .map(cardMapper::toDto)
                 .toList();
+        if (cards.isEmpty() && !ReadYourWritesContext.onPrimary(() -> userRepository.existsById(userId))) {
+            throw new EntityNotFoundException(String.format("There is no user with id %d", userId));
+        }
+        if (filtered) {
+            idFilters.userFound(userId);
+        } else if (cursor == 0 && cards.size() <= pageSize) {
+            cache.put(userId, cards);
+        }
+        return PageDto.of(cards, pageSize, CardDto::getId, Function.identity());
     }
 
     @Transactional
     public CardDto updateCardById(CardDto cardDto, Long id) {
         Card existingCard = cardRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("There is no card with id %d", id)));
+        if (cardDto.getVersion() != null && !cardDto.getVersion().equals(existingCard.getVersion())) {
+            throw new PreconditionFailedException(String.format(
+                    "Card %d is at version %d, not %d", id, existingCard.getVersion(), cardDto.getVersion()));
+        }
         cardMapper.updateEntityFromDto(cardDto, existingCard);
-        Card updatedCard = cardRepository.save(existingCard);
-        return cardMapper.toDto(updatedCard);
+        CardDto updatedCard = cardMapper.toDto(saveUniqueNumber(existingCard));
+        cacheManager.getCache(CARD_CACHE).put(id, updatedCard);
+        evictOwners(Collections.singleton(updatedCard.getUserId()));
+        outboxWriter.append(OutboxEventType.CARD_UPDATED, id, updatedCard.getUserId(), updatedCard);
+        return updatedCard;
     }
 
     @Transactional
-    public void deleteCardById(Long id) {
-        validateCardId(id);
-        cardRepository.deleteById(id);
+    public CardDto patchCardById(Long id, CardDto changes, Set<String> fields) {
+        Map<String, Object> columns = MergePatches.columns(changes, fields, PATCHABLE_COLUMNS);
+        dtoValidator.validateProperties(changes, fields).ifPresent(violations -> {
+            throw new InvalidPatchException(violations);
+        });
+        if (columns.isEmpty()) {
+            return getCardThroughCache(id);
+        }
+        Card patched;
+        try {
+            patched = cardRepository.patchCard(id, columns, changes.getVersion()).orElse(null);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueViolations.isUniqueViolation(exception)) {
+                throw new CardAlreadyExistsException("Card number or holder is already taken");
+            }
+            throw exception;
+        }
+        if (patched == null) {
+            if (!cardRepository.existsById(id)) {
+                throw new EntityNotFoundException(String.format("There is no card with id %d", id));
+            }
+            throw new PreconditionFailedException(
+                    String.format("Card %d is not at version %d", id, changes.getVersion()));
+        }
+        CardDto patchedCard = cardMapper.toDto(patched);
+        cacheManager.getCache(CARD_CACHE).put(id, patchedCard);
+        if (patchedCard.getUserId() != null) {
+            cacheManager.getCache(USER_CARDS_CACHE).evict(patchedCard.getUserId());
+        }
+        outboxWriter.append(OutboxEventType.CARD_UPDATED, id, patchedCard.getUserId(), patchedCard);
+        return patchedCard;
     }
 
-    public void validateCardId(Long id) {
-        if (id == null) {
-            throw new RuntimeException("ID can't be null");
+    @Transactional
+    public List<BulkResultDto<CardDto>> updateCards(List<CardDto> cardDtos) {
+        Map<Long, Card> existingCards = cardRepository.findAllById(
+                        cardDtos.stream().map(CardDto::getId).filter(Objects::nonNull).toList()).stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+        Set<String> takenNumbers = new HashSet<>(cardRepository.findExistingNumbers(
+                cardDtos.stream().map(CardDto::getNumber).filter(Objects::nonNull).toList()));
+        List<BulkResultDto<CardDto>> results = new ArrayList<>(cardDtos.size());
+        Map<Integer, Card> updated = new LinkedHashMap<>();
+        for (int index = 0; index < cardDtos.size(); index++) {
+            CardDto cardDto = cardDtos.get(index);
+            Card card = cardDto.getId() == null ? null : existingCards.get(cardDto.getId());
+            Optional<String> violations = dtoValidator.validate(cardDto);
+            if (cardDto.getId() == null) {
+                results.add(BulkResultDto.failure(index, HttpStatus.BAD_REQUEST, "ID can't be null"));
+            } else if (violations.isPresent()) {
+                results.add(BulkResultDto.failure(index, HttpStatus.BAD_REQUEST, violations.get()));
+            } else if (card == null) {
+                results.add(BulkResultDto.failure(index, HttpStatus.NOT_FOUND,
+                        String.format("There is no card with id %d", cardDto.getId())));
+            } else if (!Objects.equals(card.getNumber(), cardDto.getNumber()) && !takenNumbers.add(cardDto.getNumber())) {
+                results.add(BulkResultDto.failure(index, HttpStatus.CONFLICT,
+                        String.format("Card with number %s already exists", cardDto.getNumber())));
+            } else {
+                cardMapper.updateEntityFromDto(cardDto, card);
+                updated.put(index, card);
+                results.add(null);
+            }
         }
-        if (!cardRepository.existsById(id)) {
+        cardRepository.flush();
+        Cache cache = cacheManager.getCache(CARD_CACHE);
+        Set<Long> owners = new HashSet<>();
+        updated.forEach((index, card) -> {
+            CardDto updatedCard = cardMapper.toDto(card);
+            cache.put(card.getId(), updatedCard);
+            owners.add(updatedCard.getUserId());
+            outboxWriter.append(OutboxEventType.CARD_UPDATED, card.getId(), updatedCard.getUserId(), updatedCard);
+            results.set(index, BulkResultDto.success(index, HttpStatus.OK, updatedCard));
+        });
+        evictOwners(owners);
+        return results;
+    }
+
+    @Transactional
+    public void deleteCardById(Long id) {
+        Map<Long, Long> ownersById = cardRepository.deleteCardsReturningOwners(List.of(id));
+        if (!ownersById.containsKey(id)) {
             throw new EntityNotFoundException(String.format("There is no card with id %d", id));
+        }
+        Long ownerId = ownersById.get(id);
+        cacheManager.getCache(CARD_CACHE).evict(id);
+        evictOwners(Collections.singleton(ownerId));
+        outboxWriter.append(OutboxEventType.CARD_DELETED, id, ownerId, null);
+    }
+
+    @Transactional
+    public List<BulkResultDto<Void>> deleteCards(List<Long> ids) {
+        Map<Long, Long> ownersById = cardRepository.deleteCardsReturningOwners(
+                ids.stream().filter(Objects::nonNull).distinct().toList());
+        Set<Long> existingIds = ownersById.keySet();
+        if (!existingIds.isEmpty()) {
+            Cache cache = cacheManager.getCache(CARD_CACHE);
+            existingIds.forEach(cache::evict);
+            Set<Long> owners = new HashSet<>();
+            ownersById.forEach((cardId, ownerId) -> {
+                owners.add(ownerId);
+                outboxWriter.append(OutboxEventType.CARD_DELETED, cardId, ownerId, null);
+            });
+            owners.remove(null);
+            evictOwners(owners);
+        }
+        List<BulkResultDto<Void>> results = new ArrayList<>(ids.size());
+        for (int index = 0; index < ids.size(); index++) {
+            Long id = ids.get(index);
+            results.add(existingIds.contains(id)
+                    ? BulkResultDto.success(index, HttpStatus.NO_CONTENT, null)
+                    : BulkResultDto.failure(index, HttpStatus.NOT_FOUND,
+                    String.format("There is no card with id %d", id)));
+        }
+        return results;
+    }
+
+    private CardDto getCardThroughCache(Long id) {
+        Cache cache = cacheManager.getCache(CARD_CACHE);
+        CardDto cachedCard = cache.get(id, CardDto.class);
+        if (cachedCard != null) {
+            return cachedCard;
+        }
+        CardDto card = ReadYourWritesContext.onPrimary(() -> cardRepository.findById(id))
+                .map(cardMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("There is no card with id %d", id)));
+        cache.put(id, card);
+        return card;
+    }
+
+    private Card saveUniqueNumber(Card card) {
+        try {
+            return cardRepository.saveAndFlush(card);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueViolations.isUniqueViolation(exception)) {
+                throw new CardAlreadyExistsException(
+                        String.format("Card with number %s already exists", card.getNumber()));
+            }
+            throw exception;
+        }
+    }
+
+    private Card toEntity(CardDto cardDto) {
+        Card card = cardMapper.toEntity(cardDto);
+        if (cardDto.getUserId() != null) {
+            card.setUser(userRepository.getReferenceById(cardDto.getUserId()));
+        }
+        return card;
+    }
 
+    /**
+     * Drops the owners' cached card ids. The cache manager is transaction-aware, so inside a write
+     * transaction these evictions are applied only after commit and a concurrent reader cannot cache the
+     * pre-commit card ids again.
+     */
+    private void evictOwners(Collection<Long> userIds) {
+        Cache userCache = cacheManager.getCache(USER_CACHE);
+        Cache userCardsCache = cacheManager.getCache(USER_CARDS_CACHE);
+        for (Long userId : userIds) {
+            if (userId != null) {
+                userCache.evict(userId);
+                userCardsCache.evict(userId);
+            }
         }
     }
 }
@@ -0,0 +1,38 @@
+package innowise.user_service.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class DtoValidator {
+    private final Validator validator;
+
+    public Optional<String> validate(Object dto) {
+        return describe(validator.validate(dto));
+    }
+
+    public Optional<String> validateProperties(Object dto, Collection<String> properties) {
+        Set<ConstraintViolation<Object>> violations = new HashSet<>();
+        properties.forEach(property -> violations.addAll(validator.validateProperty(dto, property)));
+        return describe(violations);
+    }
+
+    private static Optional<String> describe(Set<ConstraintViolation<Object>> violations) {
+        if (violations.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+    }
+}
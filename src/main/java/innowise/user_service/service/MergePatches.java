@@ -0,0 +1,36 @@
+package innowise.user_service.service;
+
+import innowise.user_service.exception.InvalidPatchException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class MergePatches {
+
+    private MergePatches() {
+    }
+
+    /**
+     * Maps the fields present in a merge patch to column values. Every patchable column is NOT NULL,
+     * so an explicit null is rejected instead of being treated as a removal.
+     */
+    static Map<String, Object> columns(Object changes, Collection<String> fields, Map<String, String> patchableColumns) {
+        BeanWrapper values = new BeanWrapperImpl(changes);
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (String field : fields) {
+            String column = patchableColumns.get(field);
+            if (column == null) {
+                throw new InvalidPatchException(String.format("Field %s can't be patched", field));
+            }
+            Object value = values.getPropertyValue(field);
+            if (value == null) {
+                throw new InvalidPatchException(String.format("Field %s can't be null", field));
+            }
+            columns.put(column, value);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,24 @@
+package innowise.user_service.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+final class UniqueViolations {
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private UniqueViolations() {
+    }
+
+    /**
+     * JDBC-backed writes (the merge patch fragments) are translated to {@link DuplicateKeyException},
+     * while a Hibernate flush only surfaces a plain {@link DataIntegrityViolationException}, so the
+     * SQLSTATE decides there.
+     */
+    static boolean isUniqueViolation(DataIntegrityViolationException exception) {
+        return exception instanceof DuplicateKeyException
+                || exception.getMostSpecificCause() instanceof SQLException sqlException
+                && UNIQUE_VIOLATION.equals(sqlException.getSQLState());
+    }
+}
@@ -0,0 +1,122 @@
+package innowise.user_service.service;
+
+import innowise.user_service.cache.HotKeySnapshotStore;
+import innowise.user_service.cache.TwoTierCache;
+import innowise.user_service.cache.TwoTierCacheManager;
+import innowise.user_service.cache.TwoTierCacheProperties;
+import innowise.user_service.datasource.ReadYourWritesContext;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.mapper.UserMapper;
+import innowise.user_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Preloads the "user" cache with the ids found hot before the last shutdown. Runs as an
+ * {@link ApplicationRunner}, so readiness only switches to accepting traffic once it is done or its
+ * time budget is spent; DB load is bounded by the number of batches fetched concurrently.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheWarmer implements ApplicationRunner {
+    private static final String USER_CACHE = "user";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final CacheManager cacheManager;
+    private final HotKeySnapshotStore hotKeySnapshotStore;
+    private final TwoTierCacheProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getWarmUp().isEnabled()) {
+            warmUp();
+        }
+    }
+
+    public int warmUp() {
+        List<Long> ids = hotKeySnapshotStore.load(USER_CACHE).stream()
+                .map(UserCacheWarmer::parseId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        TwoTierCacheProperties.WarmUp warmUp = properties.getWarmUp();
+        Cache cache = cacheManager.getCache(USER_CACHE);
+        List<Callable<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += warmUp.getBatchSize()) {
+            List<Long> batch = ids.subList(from, Math.min(from + warmUp.getBatchSize(), ids.size()));
+            batches.add(() -> load(cache, batch));
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, warmUp.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threadIds.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long started = System.nanoTime();
+        int loaded = 0;
+        int timedOut = 0;
+        try {
+            for (Future<Integer> result : executor.invokeAll(batches, warmUp.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    loaded += result.get();
+                } catch (CancellationException e) {
+                    timedOut++;
+                } catch (ExecutionException e) {
+                    log.warn("Failed to warm up a batch of the user cache", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Warmed up {} of {} hot users in {} ms ({} batches cut off by the time budget)",
+                loaded, ids.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), timedOut);
+        return loaded;
+    }
+
+    private int load(Cache cache, List<Long> ids) {
+        Map<Long, UserDto> users = ReadYourWritesContext.onPrimary(() -> userRepository.findAllWithCardsByIdIn(ids)).stream()
+                .map(userMapper::toDto)
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        TwoTierCache twoTierCache = TwoTierCacheManager.unwrap(cache);
+        if (twoTierCache != null) {
+            twoTierCache.putAll(users);
+        } else {
+            users.forEach(cache::put);
+        }
+        return users.size();
+    }
+
+    private static Long parseId(String key) {
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package innowise.user_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import innowise.user_service.dto.UserDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY_USERS = 1000;
+    private static final String EXPORT_QUERY = """
+            select u.id, u.name, u.surname, u.email, u.birthDate, c.id
+            from User u left join u.cards c
+            order by u.id, c.id""";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+
+    public void exportUsers(OutputStream outputStream) throws IOException {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            session.doWork(connection -> connection.setReadOnly(true));
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> rows = session.createQuery(EXPORT_QUERY, Object[].class)
+                    .setFetchSize(FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                writeUsers(rows, generator);
+            } finally {
+                transaction.commit();
+            }
+        }
+    }
+
+    private void writeUsers(ScrollableResults<Object[]> rows, JsonGenerator generator) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        UserDto current = null;
+        long written = 0;
+        while (rows.next()) {
+            Object[] row = rows.get();
+            Long userId = (Long) row[0];
+            if (current == null || !Objects.equals(current.getId(), userId)) {
+                if (current != null) {
+                    writer.writeValue(generator, current);
+                    if (++written % FLUSH_EVERY_USERS == 0) {
+                        generator.flush();
+                    }
+                }
+                current = UserDto.builder()
+                        .id(userId)
+                        .name((String) row[1])
+                        .surname((String) row[2])
+                        .email((String) row[3])
+                        .birthDate((LocalDate) row[4])
+                        .cardIds(new ArrayList<>())
+                        .build();
+            }
+            if (row[5] != null) {
+                current.getCardIds().add((Long) row[5]);
+            }
+        }
+        if (current != null) {
+            writer.writeValue(generator, current);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
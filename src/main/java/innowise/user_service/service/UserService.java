@@ -1,59 +1,164 @@
 package innowise.user_service.service;
 
+import innowise.user_service.bloom.IdFilters;
+import innowise.user_service.cache.BatchCacheReader;
+import innowise.user_service.cache.CachedBatch;
+import innowise.user_service.cache.SyncCacheReader;
+import innowise.user_service.datasource.ReadYourWritesContext;
+import innowise.user_service.dto.BulkResultDto;
+import innowise.user_service.dto.PageDto;
 import innowise.user_service.dto.UserDto;
 import innowise.user_service.entity.User;
+import innowise.user_service.exception.InvalidPatchException;
+import innowise.user_service.exception.PreconditionFailedException;
 import innowise.user_service.exception.UserAlreadyExistsException;
 import innowise.user_service.mapper.UserMapper;
+import innowise.user_service.outbox.OutboxEventType;
+import innowise.user_service.outbox.OutboxWriter;
+import innowise.user_service.repository.UserDeleteOperations.DeletedUsers;
+import innowise.user_service.repository.UserPatchOperations.PatchedUser;
 import innowise.user_service.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "service.calls", histogram = true)
 public class UserService {
+    private static final String USER_CACHE = "user";
+    private static final String USER_EMAIL_CACHE = "userEmail";
+    private static final String CARD_CACHE = "card";
+    private static final String USER_CARDS_CACHE = "userCards";
+    private static final Map<String, String> PATCHABLE_COLUMNS = Map.of(
+            "name", "name",
+            "surname", "surname",
+            "email", "email",
+            "birthDate", "birth_date");
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final DtoValidator dtoValidator;
+    private final CacheManager cacheManager;
+    private final OutboxWriter outboxWriter;
+    private final IdFilters idFilters;
 
     @Transactional
     public UserDto createUser(UserDto userDto) {
-        User user = userMapper.toEntity(userDto);
-        if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
-            throw new UserAlreadyExistsException(
-                    String.format("User with email %s already exists", user.getEmail()));
+        User createdUser = saveUniqueEmail(userMapper.toEntity(userDto));
+        cacheManager.getCache(USER_EMAIL_CACHE).put(createdUser.getEmail(), createdUser.getId());
+        idFilters.usersCreated(List.of(createdUser.getId()));
+        UserDto createdDto = userMapper.toDto(createdUser);
+        outboxWriter.append(OutboxEventType.USER_CREATED, createdUser.getId(), createdUser.getId(), createdDto);
+        return createdDto;
+    }
+
+    @Transactional
+    public List<BulkResultDto<UserDto>> createUsers(List<UserDto> userDtos) {
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                userDtos.stream().map(UserDto::getEmail).filter(Objects::nonNull).toList()));
+        List<BulkResultDto<UserDto>> results = new ArrayList<>(userDtos.size());
+        Map<Integer, User> created = new LinkedHashMap<>();
+        for (int index = 0; index < userDtos.size(); index++) {
+            UserDto userDto = userDtos.get(index);
+            Optional<String> violations = dtoValidator.validate(userDto);
+            if (violations.isPresent()) {
+                results.add(BulkResultDto.failure(index, HttpStatus.BAD_REQUEST, violations.get()));
+            } else if (!takenEmails.add(userDto.getEmail())) {
+                results.add(BulkResultDto.failure(index, HttpStatus.CONFLICT,
+                        String.format("User with email %s already exists", userDto.getEmail())));
+            } else {
+                created.put(index, userMapper.toEntity(userDto));
+                results.add(null);
+            }
         }
-        User updatedUser = userRepository.save(user);
-        return userMapper.toDto(updatedUser);
+        userRepository.saveAll(created.values());
+        userRepository.flush();
+        idFilters.usersCreated(created.values().stream().map(User::getId).toList());
+        Cache emailCache = cacheManager.getCache(USER_EMAIL_CACHE);
+        created.forEach((index, user) -> {
+            emailCache.put(user.getEmail(), user.getId());
+            UserDto createdDto = userMapper.toDto(user);
+            outboxWriter.append(OutboxEventType.USER_CREATED, user.getId(), user.getId(), createdDto);
+            results.set(index, BulkResultDto.success(index, HttpStatus.CREATED, createdDto));
+        });
+        return results;
     }
 
-    @Transactional(readOnly = true)
-    @Cacheable(value = "user", key = "#id")
     public UserDto getUserById(Long id) {
-        return userRepository.findById(id)
+        if (idFilters.userMissing(id)) {
+            UserDto user = ReadYourWritesContext.onPrimary(() -> loadUser(id));
+            idFilters.userFound(id);
+            return user;
+        }
+        return SyncCacheReader.get(cacheManager.getCache(USER_CACHE), id, () -> loadUser(id));
+    }
+
+    private UserDto loadUser(Long id) {
+        return userRepository.findWithCardsById(id)
                 .map(userMapper::toDto)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("There is no user with id %d", id)));
     }
 
-    @Transactional(readOnly = true)
-    public List<UserDto> getUsersByIds(List<Long> ids) {
-        return userRepository.findAllById(ids).stream()
-                .map(userMapper::toDto)
-                .toList();
+    public CachedBatch<UserDto> getUsersByIds(List<Long> ids) {
+        return BatchCacheReader.getAll(cacheManager.getCache(USER_CACHE), ids, UserDto.class,
+                missingIds -> userRepository.findAllWithCardsByIdIn(missingIds).stream()
+                        .collect(Collectors.toMap(User::getId, userMapper::toDto)));
     }
 
     @Transactional(readOnly = true)
+    public PageDto<UserDto> getUsersPage(Long after, int limit, String name, String surname) {
+        long cursor = after == null ? 0 : after;
+        int pageSize = PageDto.clampLimit(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<User> users;
+        if (name != null && surname != null) {
+            users = userRepository.findByNameAndSurnameAndIdGreaterThanOrderByIdAsc(name, surname, cursor, fetchLimit);
+        } else if (name != null) {
+            users = userRepository.findByNameAndIdGreaterThanOrderByIdAsc(name, cursor, fetchLimit);
+        } else if (surname != null) {
+            users = userRepository.findBySurnameAndIdGreaterThanOrderByIdAsc(surname, cursor, fetchLimit);
+        } else {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(cursor, fetchLimit);
+        }
+        return PageDto.of(users, pageSize, User::getId, userMapper::toDto);
+    }
+
     public UserDto getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        Cache emailCache = cacheManager.getCache(USER_EMAIL_CACHE);
+        Long cachedId = emailCache.get(email, Long.class);
+        if (cachedId != null) {
+            Optional<UserDto> cachedUser = findUserThroughCache(cachedId);
+            if (cachedUser.isPresent() && email.equals(cachedUser.get().getEmail())) {
+                return cachedUser.get();
+            }
+            emailCache.evict(email);
+        }
+        UserDto user = ReadYourWritesContext.onPrimary(() -> userRepository.findWithCardsByEmail(email))
                 .map(userMapper::toDto)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("There is no user with email %s", email)));
+        emailCache.put(email, user.getId());
+        cacheManager.getCache(USER_CACHE).put(user.getId(), user);
+        return user;
     }
 
     @Transactional
@@ -61,16 +166,179 @@ public class UserService {
     public UserDto updateUserById(UserDto userDto, Long id) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("There is no user with id %d", id)));
+        if (userDto.getVersion() != null && !userDto.getVersion().equals(existingUser.getVersion())) {
+            throw new PreconditionFailedException(String.format(
+                    "User %d is at version %d, not %d", id, existingUser.getVersion(), userDto.getVersion()));
+        }
+        String previousEmail = existingUser.getEmail();
         userMapper.updateEntityFromDto(userDto, existingUser);
-        User updatedUser = userRepository.save(existingUser);
-        return userMapper.toDto(updatedUser);
+        User updatedUser = saveUniqueEmail(existingUser);
+        Cache emailCache = cacheManager.getCache(USER_EMAIL_CACHE);
+        if (!Objects.equals(previousEmail, updatedUser.getEmail())) {
+            emailCache.evict(previousEmail);
+        }
+        emailCache.put(updatedUser.getEmail(), updatedUser.getId());
+        UserDto updatedDto = userMapper.toDto(updatedUser);
+        outboxWriter.append(OutboxEventType.USER_UPDATED, id, id, updatedDto);
+        return updatedDto;
+    }
+
+    @Transactional
+    public UserDto patchUserById(Long id, UserDto changes, Set<String> fields) {
+        Map<String, Object> columns = MergePatches.columns(changes, fields, PATCHABLE_COLUMNS);
+        dtoValidator.validateProperties(changes, fields).ifPresent(violations -> {
+            throw new InvalidPatchException(violations);
+        });
+        if (columns.isEmpty()) {
+            return findUserThroughCache(id)
+                    .orElseThrow(() -> new EntityNotFoundException(String.format("There is no user with id %d", id)));
+        }
+        PatchedUser patched;
+        try {
+            patched = userRepository.patchUser(id, columns, changes.getVersion()).orElse(null);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueViolations.isUniqueViolation(exception)) {
+                throw new UserAlreadyExistsException(
+                        String.format("User with email %s already exists", changes.getEmail()));
+            }
+            throw exception;
+        }
+        if (patched == null) {
+            if (!userRepository.existsById(id)) {
+                throw new EntityNotFoundException(String.format("There is no user with id %d", id));
+            }
+            throw new PreconditionFailedException(
+                    String.format("User %d is not at version %d", id, changes.getVersion()));
+        }
+        UserDto patchedUser = userMapper.toDto(patched.user());
+        cacheManager.getCache(USER_CACHE).put(id, patchedUser);
+        Cache emailCache = cacheManager.getCache(USER_EMAIL_CACHE);
+        if (!Objects.equals(patched.previousEmail(), patchedUser.getEmail())) {
+            emailCache.evict(patched.previousEmail());
+        }
+        emailCache.put(patchedUser.getEmail(), id);
+        outboxWriter.append(OutboxEventType.USER_UPDATED, id, id, patchedUser);
+        return patchedUser;
+    }
+
+    @Transactional
+    public List<BulkResultDto<UserDto>> updateUsers(List<UserDto> userDtos) {
+        Map<Long, User> existingUsers = userRepository.findAllWithCardsByIdIn(
+                        userDtos.stream().map(UserDto::getId).filter(Objects::nonNull).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                userDtos.stream().map(UserDto::getEmail).filter(Objects::nonNull).toList()));
+        List<BulkResultDto<UserDto>> results = new ArrayList<>(userDtos.size());
+        Map<Integer, User> updated = new LinkedHashMap<>();
+        List<String> previousEmails = new ArrayList<>();
+        for (int index = 0; index < userDtos.size(); index++) {
+            UserDto userDto = userDtos.get(index);
+            User user = userDto.getId() == null ? null : existingUsers.get(userDto.getId());
+            Optional<String> violations = dtoValidator.validate(userDto);
+            if (userDto.getId() == null) {
+                results.add(BulkResultDto.failure(index, HttpStatus.BAD_REQUEST, "ID can't be null"));
+            } else if (violations.isPresent()) {
+                results.add(BulkResultDto.failure(index, HttpStatus.BAD_REQUEST, violations.get()));
+            } else if (user == null) {
+                results.add(BulkResultDto.failure(index, HttpStatus.NOT_FOUND,
+                        String.format("There is no user with id %d", userDto.getId())));
+            } else if (!Objects.equals(user.getEmail(), userDto.getEmail()) && !takenEmails.add(userDto.getEmail())) {
+                results.add(BulkResultDto.failure(index, HttpStatus.CONFLICT,
+                        String.format("User with email %s already exists", userDto.getEmail())));
+            } else {
+                if (!Objects.equals(user.getEmail(), userDto.getEmail())) {
+                    previousEmails.add(user.getEmail());
+                }
+                userMapper.updateEntityFromDto(userDto, user);
+                updated.put(index, user);
+                results.add(null);
+            }
+        }
+        userRepository.flush();
+        Cache cache = cacheManager.getCache(USER_CACHE);
+        Cache emailCache = cacheManager.getCache(USER_EMAIL_CACHE);
+        previousEmails.forEach(emailCache::evict);
+        updated.forEach((index, user) -> {
+            UserDto updatedUser = userMapper.toDto(user);
+            cache.put(user.getId(), updatedUser);
+            emailCache.put(user.getEmail(), user.getId());
+            outboxWriter.append(OutboxEventType.USER_UPDATED, user.getId(), user.getId(), updatedUser);
+            results.set(index, BulkResultDto.success(index, HttpStatus.OK, updatedUser));
+        });
+        return results;
     }
 
     @Transactional
-    @CacheEvict(value = "user", key = "#id")
     public void deleteUserById(Long id) {
-        validateUserId(id);
-        userRepository.deleteById(id);
+        if (id == null) {
+            throw new RuntimeException("ID can't be null");
+        }
+        DeletedUsers deleted = userRepository.deleteUsersWithCards(List.of(id));
+        if (deleted.emailsById().isEmpty()) {
+            throw new EntityNotFoundException(String.format("There is no user with id %d", id));
+        }
+        evictDeleted(deleted);
+        outboxWriter.append(OutboxEventType.USER_DELETED, id, id, null);
+    }
+
+    @Transactional
+    public List<BulkResultDto<Void>> deleteUsers(List<Long> ids) {
+        DeletedUsers deleted = userRepository.deleteUsersWithCards(
+                ids.stream().filter(Objects::nonNull).distinct().toList());
+        Set<Long> existingIds = deleted.emailsById().keySet();
+        evictDeleted(deleted);
+        existingIds.forEach(id -> outboxWriter.append(OutboxEventType.USER_DELETED, id, id, null));
+        List<BulkResultDto<Void>> results = new ArrayList<>(ids.size());
+        for (int index = 0; index < ids.size(); index++) {
+            Long id = ids.get(index);
+            results.add(existingIds.contains(id)
+                    ? BulkResultDto.success(index, HttpStatus.NO_CONTENT, null)
+                    : BulkResultDto.failure(index, HttpStatus.NOT_FOUND,
+                    String.format("There is no user with id %d", id)));
+        }
+        return results;
+    }
+
+    private User saveUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueViolations.isUniqueViolation(exception)) {
+                throw new UserAlreadyExistsException(
+                        String.format("User with email %s already exists", user.getEmail()));
+            }
+            throw exception;
+        }
+    }
+
+    private void evictDeleted(DeletedUsers deleted) {
+        if (deleted.emailsById().isEmpty()) {
+            return;
+        }
+        Cache userCache = cacheManager.getCache(USER_CACHE);
+        Cache emailCache = cacheManager.getCache(USER_EMAIL_CACHE);
+        Cache userCardsCache = cacheManager.getCache(USER_CARDS_CACHE);
+        deleted.emailsById().forEach((userId, email) -> {
+            userCache.evict(userId);
+            emailCache.evict(email);
+            userCardsCache.evict(userId);
+        });
+        if (!deleted.cardIds().isEmpty()) {
+            Cache cardCache = cacheManager.getCache(CARD_CACHE);
+            deleted.cardIds().forEach(cardCache::evict);
+        }
+    }
+
+    private Optional<UserDto> findUserThroughCache(Long id) {
+        Cache cache = cacheManager.getCache(USER_CACHE);
+        UserDto cachedUser = cache.get(id, UserDto.class);
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
+        }
+        Optional<UserDto> loadedUser = ReadYourWritesContext.onPrimary(() -> userRepository.findWithCardsById(id))
+                .map(userMapper::toDto);
+        loadedUser.ifPresent(user -> cache.put(id, user));
+        return loadedUser;
     }
 
     public void validateUserId(Long id) {
@@ -0,0 +1,29 @@
+package innowise.user_service.softdelete;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "soft-delete.purge")
+public class SoftDeleteProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofSeconds(30);
+
+    /**
+     * Soft-deleted rows are kept at least this long before they are physically removed.
+     */
+    private Duration gracePeriod = Duration.ofHours(1);
+
+    private int batchSize = 500;
+
+    /**
+     * Pause between two batches of one run, so the purge never competes with request traffic for locks.
+     */
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+
+    private int maxBatchesPerRun = 100;
+}
@@ -0,0 +1,149 @@
+package innowise.user_service.softdelete;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Physically removes soft-deleted users and cards off the request path. Every batch is its own short
+ * transaction that deletes at most batch-size rows picked with {@code for update skip locked}, so
+ * instances never block each other and no lock is held across batches. Cards go first, and a user is
+ * only removed once none of its cards remain.
+ */
+@Slf4j
+public class SoftDeletePurger implements ApplicationListener<ApplicationReadyEvent>, Closeable {
+    static final String CARDS = "card_info";
+    static final String USERS = "users";
+
+    private static final String PURGE_CARDS = """
+            delete from card_info where id in (
+                select id from card_info
+                where deleted_at < now() - make_interval(secs => ?)
+                limit ?
+                for update skip locked)""";
+    private static final String PURGE_USERS = """
+            delete from users where id in (
+                select u.id from users u
+                where u.deleted_at < now() - make_interval(secs => ?)
+                  and not exists (select 1 from card_info c where c.user_id = u.id)
+                limit ?
+                for update of u skip locked)""";
+    private static final String BACKLOG = "select count(*) from %s where deleted_at is not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SoftDeleteProperties properties;
+    private final AtomicLong cardBacklog = new AtomicLong();
+    private final AtomicLong userBacklog = new AtomicLong();
+    private final Counter purgedCards;
+    private final Counter purgedUsers;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "soft-delete-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SoftDeletePurger(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            SoftDeleteProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.purgedCards = purgedCounter(meterRegistry, CARDS);
+        this.purgedUsers = purgedCounter(meterRegistry, USERS);
+        backlogGauge(meterRegistry, CARDS, cardBacklog);
+        backlogGauge(meterRegistry, USERS, userBacklog);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one purge pass and refreshes the backlog gauges.
+     *
+     * @return the number of rows removed from both tables
+     */
+    public long purge() {
+        long purged = purgeTable(PURGE_CARDS, purgedCards) + purgeTable(PURGE_USERS, purgedUsers);
+        cardBacklog.set(countBacklog(CARDS));
+        userBacklog.set(countBacklog(USERS));
+        return purged;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void purgeSafely() {
+        try {
+            purge();
+        } catch (DataAccessException e) {
+            log.warn("Failed to purge soft-deleted rows", e);
+        }
+    }
+
+    private long purgeTable(String sql, Counter purgedRows) {
+        double graceSeconds = properties.getGracePeriod().toMillis() / 1000.0;
+        long total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    jdbcTemplate.update(sql, graceSeconds, properties.getBatchSize()));
+            int count = deleted == null ? 0 : deleted;
+            purgedRows.increment(count);
+            total += count;
+            if (count < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatches().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long countBacklog(String table) {
+        Long count = jdbcTemplate.queryForObject(String.format(BACKLOG, table), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static Counter purgedCounter(MeterRegistry registry, String table) {
+        return Counter.builder("soft.delete.purged")
+                .description("Soft-deleted rows physically removed by the background purge")
+                .tag("table", table)
+                .register(registry);
+    }
+
+    private static void backlogGauge(MeterRegistry registry, String table, AtomicLong backlog) {
+        Gauge.builder("soft.delete.backlog", backlog, AtomicLong::get)
+                .description("Soft-deleted rows still waiting to be purged, as of the last purge run")
+                .tag("table", table)
+                .register(registry);
+    }
+}
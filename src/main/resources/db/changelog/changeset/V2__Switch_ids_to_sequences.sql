@@ -0,0 +1,9 @@
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE users_id_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_id_seq');
+
+ALTER TABLE card_info ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE card_info_id_seq INCREMENT BY 50 OWNED BY card_info.id;
+SELECT setval('card_info_id_seq', COALESCE((SELECT MAX(id) FROM card_info), 0) + 50, false);
+ALTER TABLE card_info ALTER COLUMN id SET DEFAULT nextval('card_info_id_seq');
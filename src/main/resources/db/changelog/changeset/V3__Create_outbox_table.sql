@@ -0,0 +1,12 @@
+CREATE TABLE outbox_event (
+    id bigserial PRIMARY KEY,
+    partition_no int NOT NULL,
+    aggregate_type varchar(16) NOT NULL,
+    aggregate_id bigint NOT NULL,
+    user_id bigint,
+    event_type varchar(32) NOT NULL,
+    payload jsonb,
+    created_at timestamp with time zone NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_outbox_event_partition_id ON outbox_event (partition_no, id);
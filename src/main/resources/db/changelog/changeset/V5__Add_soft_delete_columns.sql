@@ -0,0 +1,11 @@
+ALTER TABLE users ADD COLUMN deleted_at timestamptz;
+ALTER TABLE card_info ADD COLUMN deleted_at timestamptz;
+
+ALTER TABLE users DROP CONSTRAINT users_email_key;
+CREATE UNIQUE INDEX ux_users_email_live ON users(email) WHERE deleted_at IS NULL;
+
+ALTER TABLE card_info DROP CONSTRAINT card_info_number_key;
+CREATE UNIQUE INDEX ux_card_info_number_live ON card_info(number) WHERE deleted_at IS NULL;
+
+CREATE INDEX idx_users_deleted_at ON users(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_card_info_deleted_at ON card_info(deleted_at) WHERE deleted_at IS NOT NULL;
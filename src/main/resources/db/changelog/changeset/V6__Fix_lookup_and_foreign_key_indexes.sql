@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+-- CONCURRENTLY cannot run inside a transaction block, so each index change is its own
+-- non-transactional changeset. The replacements are built before the old indexes are dropped.
+
+--changeset user-service:V6-1 runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_users_name_surname_id ON users(name, surname, id) WHERE deleted_at IS NULL;
+
+--changeset user-service:V6-2 runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_users_surname_id ON users(surname, id) WHERE deleted_at IS NULL;
+
+--changeset user-service:V6-3 runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_card_info_user_id_id ON card_info(user_id, id) INCLUDE (deleted_at);
+
+--changeset user-service:V6-4 runInTransaction:false
+DROP INDEX CONCURRENTLY idx_users_name_surname;
+
+--changeset user-service:V6-5 runInTransaction:false
+DROP INDEX CONCURRENTLY idx_users_email;
@@ -0,0 +1,172 @@
+--liquibase formatted sql
+
+--changeset user-service:V7-1 splitStatements:false
+CREATE TABLE card_info_new (
+    id bigint NOT NULL DEFAULT nextval('card_info_id_seq'),
+    number varchar(16) NOT NULL CHECK (LENGTH(number) = 16),
+    holder varchar(32),
+    expiration_date date NOT NULL,
+    user_id bigint NOT NULL,
+    version bigint NOT NULL DEFAULT 0,
+    deleted_at timestamptz,
+
+    CONSTRAINT card_info_new_pkey PRIMARY KEY (user_id, id) INCLUDE (deleted_at),
+    CONSTRAINT card_info_new_user_fkey FOREIGN KEY (user_id) REFERENCES users(id)
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE card_info_p%s PARTITION OF card_info_new FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                       lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END
+$$;
+
+-- The primary key (user_id, id) does not make card ids unique on its own; they stay unique because every
+-- insert path takes them from card_info_id_seq. Lookups by card id alone (findById, Hibernate's versioned
+-- UPDATE) probe this index in all 16 partitions; CardPartitioningBenchmark measures that cost.
+CREATE INDEX card_info_new_id_idx ON card_info_new(id);
+CREATE INDEX card_info_new_number_live_idx ON card_info_new(number) WHERE deleted_at IS NULL;
+CREATE INDEX card_info_new_deleted_at_idx ON card_info_new(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- A unique index on a partitioned table must contain the partition key, so card number uniqueness
+-- moves to its own table, hash-partitioned by number and kept in sync with the live cards.
+CREATE TABLE card_number (
+    number varchar(16) PRIMARY KEY,
+    card_id bigint NOT NULL
+) PARTITION BY HASH (number);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE card_number_p%s PARTITION OF card_number FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                       lpad(remainder::text, 2, '0'), remainder);
+    END LOOP;
+END
+$$;
+
+CREATE FUNCTION card_number_sync() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.deleted_at IS NULL THEN
+        DELETE FROM card_number WHERE number = OLD.number AND card_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.deleted_at IS NULL THEN
+        INSERT INTO card_number (number, card_id) VALUES (NEW.number, NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER card_number_sync
+    AFTER INSERT OR DELETE OR UPDATE OF number, deleted_at ON card_info_new
+    FOR EACH ROW EXECUTE FUNCTION card_number_sync();
+
+-- Mirrors every insert, update and delete on the old table until the cutover. The backfill locks the
+-- rows it copies, so a concurrent update or delete waits for the copy to commit and its mirrored write
+-- then lands on top of it. The backfill never overwrites a mirrored row.
+CREATE FUNCTION card_info_mirror() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM card_info_new WHERE user_id = OLD.user_id AND id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO card_info_new (id, number, holder, expiration_date, user_id, version, deleted_at)
+        VALUES (NEW.id, NEW.number, NEW.holder, NEW.expiration_date, NEW.user_id, NEW.version, NEW.deleted_at)
+        ON CONFLICT (user_id, id) DO UPDATE SET
+            number = EXCLUDED.number,
+            holder = EXCLUDED.holder,
+            expiration_date = EXCLUDED.expiration_date,
+            version = EXCLUDED.version,
+            deleted_at = EXCLUDED.deleted_at;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER card_info_mirror
+    AFTER INSERT OR UPDATE OR DELETE ON card_info
+    FOR EACH ROW EXECUTE FUNCTION card_info_mirror();
+
+CREATE PROCEDURE card_info_backfill(batch_size int) LANGUAGE plpgsql AS $$
+DECLARE
+    last_id bigint := 0;
+    copied_to bigint;
+BEGIN
+    LOOP
+        WITH batch AS (
+            SELECT id, number, holder, expiration_date, user_id, version, deleted_at
+            FROM card_info
+            WHERE id > last_id
+            ORDER BY id
+            LIMIT batch_size
+            FOR SHARE
+        ), copied AS (
+            INSERT INTO card_info_new (id, number, holder, expiration_date, user_id, version, deleted_at)
+            SELECT id, number, holder, expiration_date, user_id, version, deleted_at FROM batch
+            ON CONFLICT (user_id, id) DO NOTHING
+        )
+        SELECT max(id) INTO copied_to FROM batch;
+        EXIT WHEN copied_to IS NULL;
+        last_id := copied_to;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+-- Removes copied rows that no longer exist in the old table with the same owner, batch by batch
+-- while the mirror keeps running, so the cutover itself does not have to scan anything.
+CREATE PROCEDURE card_info_reconcile(batch_size int) LANGUAGE plpgsql AS $$
+DECLARE
+    last_id bigint := 0;
+    checked_to bigint;
+BEGIN
+    LOOP
+        WITH batch AS (
+            SELECT id, user_id
+            FROM card_info_new
+            WHERE id > last_id
+            ORDER BY id
+            LIMIT batch_size
+        ), stale AS (
+            DELETE FROM card_info_new n
+            USING batch b
+            WHERE n.user_id = b.user_id AND n.id = b.id
+              AND NOT EXISTS (SELECT 1 FROM card_info o WHERE o.id = b.id AND o.user_id = b.user_id)
+        )
+        SELECT max(id) INTO checked_to FROM batch;
+        EXIT WHEN checked_to IS NULL;
+        last_id := checked_to;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+--changeset user-service:V7-2 runInTransaction:false
+CALL card_info_backfill(10000);
+CALL card_info_reconcile(10000);
+ANALYZE card_info_new;
+
+--changeset user-service:V7-3 splitStatements:false
+-- Only the swap runs under the exclusive lock; every statement here is catalog-only.
+SET LOCAL lock_timeout = '5s';
+LOCK TABLE card_info IN ACCESS EXCLUSIVE MODE;
+
+DROP TRIGGER card_info_mirror ON card_info;
+ALTER SEQUENCE card_info_id_seq OWNED BY card_info_new.id;
+DROP TABLE card_info;
+
+ALTER TABLE card_info_new RENAME TO card_info;
+ALTER TABLE card_info RENAME CONSTRAINT card_info_new_pkey TO card_info_pkey;
+ALTER TABLE card_info RENAME CONSTRAINT card_info_new_user_fkey TO fk_card_info_user;
+ALTER TABLE card_info RENAME CONSTRAINT card_info_new_number_check TO card_info_number_check;
+ALTER INDEX card_info_new_id_idx RENAME TO idx_card_info_id;
+ALTER INDEX card_info_new_number_live_idx RENAME TO idx_card_info_number_live;
+ALTER INDEX card_info_new_deleted_at_idx RENAME TO idx_card_info_deleted_at;
+
+DROP FUNCTION card_info_mirror();
+DROP PROCEDURE card_info_backfill(int);
+DROP PROCEDURE card_info_reconcile(int);
+
+--changeset user-service:V7-4 runInTransaction:false
+ANALYZE card_info;
@@ -0,0 +1,29 @@
+-- KEYS[1] bucket key
+-- ARGV[1] capacity, ARGV[2] refill per millisecond, ARGV[3] tokens wanted, ARGV[4] tokens required
+-- Returns {granted, retryAfterMillis}: between required and wanted tokens, or 0 and the time until
+-- the required tokens are available.
+local capacity = tonumber(ARGV[1])
+local refill_per_ms = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local required = tonumber(ARGV[4])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_per_ms)
+
+local granted = 0
+local retry_after = 0
+if tokens >= required then
+    granted = math.min(wanted, math.floor(tokens))
+    tokens = tokens - granted
+else
+    retry_after = math.ceil((required - tokens) / refill_per_ms)
+end
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+return {granted, retry_after}
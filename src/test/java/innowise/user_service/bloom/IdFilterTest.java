@@ -0,0 +1,69 @@
+package innowise.user_service.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdFilterTest {
+
+    @Test
+    void testBloomFilterHasNoFalseNegativesAndMeetsItsTarget() {
+        LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filter.put(id);
+        }
+
+        long falsePositives = 0;
+        for (long id = 1; id <= 100_000; id++) {
+            assertThat(filter.mightContain(id)).isTrue();
+            if (filter.mightContain(1_000_000 + id)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void testFilterSaysMaybeUntilBuilt() {
+        IdFilter filter = new IdFilter("user", "users");
+
+        assertThat(filter.definitelyAbsent(42)).isFalse();
+        assertThat(filter.isReady()).isFalse();
+    }
+
+    @Test
+    void testIdsAddedDuringRebuildSurviveTheSwap() {
+        IdFilter filter = new IdFilter("user", "users");
+        LongBloomFilter rebuilt = filter.startRebuild(1_000, 0.01);
+        rebuilt.put(1);
+        filter.add(2);
+        filter.finishRebuild(rebuilt);
+
+        assertThat(filter.definitelyAbsent(1)).isFalse();
+        assertThat(filter.definitelyAbsent(2)).isFalse();
+        assertThat(filter.definitelyAbsent(3)).isTrue();
+        assertThat(filter.getRejections()).isEqualTo(1);
+    }
+
+    @Test
+    void testAnnouncedIdsAreApplied() {
+        IdFilters idFilters = new IdFilters(null, "id-filter");
+        IdFilter cards = idFilters.get(IdFilters.CARDS);
+        cards.finishRebuild(cards.startRebuild(1_000, 0.01));
+
+        idFilters.apply("card:7,8");
+        idFilters.cardsCreated(List.of(9L));
+        idFilters.cardFound(11);
+
+        assertThat(idFilters.cardMissing(7)).isFalse();
+        assertThat(idFilters.cardMissing(8)).isFalse();
+        assertThat(idFilters.cardMissing(9)).isFalse();
+        assertThat(idFilters.cardMissing(10)).isTrue();
+        assertThat(idFilters.cardMissing(11)).isFalse();
+        assertThat(idFilters.userMissing(7)).isFalse();
+    }
+}
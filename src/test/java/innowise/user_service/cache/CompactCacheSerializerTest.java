@@ -0,0 +1,109 @@
+package innowise.user_service.cache;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactCacheSerializerTest {
+
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer();
+
+    private final UserDto userDto = UserDto.builder()
+            .id(1L)
+            .name("John")
+            .surname("Doe")
+            .email("john.doe@example.com")
+            .birthDate(LocalDate.of(1990, 1, 1))
+            .cardIds(List.of(10L, 12L, 7L))
+            .build();
+
+    private final CardDto cardDto = CardDto.builder()
+            .id(5L)
+            .userId(1L)
+            .number("1234567890123456")
+            .holder("Jöhn Doe")
+            .expirationDate(LocalDate.of(2030, 12, 31))
+            .build();
+
+    @Test
+    void testUserRoundTrip() {
+        assertEquals(userDto, serializer.deserialize(serializer.serialize(userDto)));
+    }
+
+    @Test
+    void testUserWithNullFieldsRoundTrip() {
+        UserDto partial = UserDto.builder().id(2L).name("Jane").build();
+
+        assertEquals(partial, serializer.deserialize(serializer.serialize(partial)));
+    }
+
+    @Test
+    void testCardRoundTrip() {
+        assertEquals(cardDto, serializer.deserialize(serializer.serialize(cardDto)));
+    }
+
+    @Test
+    void testCardListRoundTrip() {
+        List<CardDto> cards = List.of(cardDto, CardDto.builder().id(6L).userId(1L).build());
+
+        byte[] payload = serializer.serialize(cards);
+
+        assertEquals(CompactCacheSerializer.TYPE_CARD_LIST, payload[2]);
+        assertEquals(cards, serializer.deserialize(payload));
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+    }
+
+    @Test
+    void testLongRoundTrip() {
+        assertEquals(42L, serializer.deserialize(serializer.serialize(42L)));
+    }
+
+    @Test
+    void testCompactPayloadIsSmallerThanJdk() {
+        byte[] compact = serializer.serialize(userDto);
+        byte[] jdk = new JdkSerializationRedisSerializer().serialize(userDto);
+
+        assertTrue(compact.length < jdk.length / 4);
+    }
+
+    @Test
+    void testReadsLegacyJdkEntries() {
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(userDto);
+
+        assertEquals(userDto, serializer.deserialize(legacy));
+    }
+
+    @Test
+    void testNullAndEmpty() {
+        assertNull(serializer.serialize(null));
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void testUnsupportedSchemaVersion() {
+        byte[] bytes = serializer.serialize(cardDto);
+        bytes[1] = (byte) (CompactCacheSerializer.SCHEMA_VERSION + 1);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    @Test
+    void testTruncatedPayload() {
+        byte[] bytes = serializer.serialize(userDto);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+}
@@ -0,0 +1,54 @@
+package innowise.user_service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void testTopKeysAreTheMostFrequentOnes() {
+        HotKeyTracker tracker = new HotKeyTracker(1024, 3);
+        for (int round = 0; round < 100; round++) {
+            tracker.record("1");
+            if (round % 2 == 0) {
+                tracker.record("2");
+            }
+            if (round % 4 == 0) {
+                tracker.record("3");
+            }
+            tracker.record("cold-" + round);
+        }
+
+        Map<String, Long> top = tracker.topKeys(3);
+
+        assertThat(top.keySet()).containsExactly("1", "2", "3");
+        assertThat(top.get("1")).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void testCandidatesStayBounded() {
+        HotKeyTracker tracker = new HotKeyTracker(1024, 10);
+        for (int key = 0; key < 10_000; key++) {
+            tracker.record(String.valueOf(key));
+        }
+
+        assertThat(tracker.topKeys(Integer.MAX_VALUE)).hasSizeLessThanOrEqualTo(20);
+    }
+
+    @Test
+    void testDecayHalvesFrequencies() {
+        HotKeyTracker tracker = new HotKeyTracker(1024, 10);
+        for (int i = 0; i < 8; i++) {
+            tracker.record("1");
+        }
+        tracker.record("2");
+
+        tracker.decay();
+
+        assertThat(tracker.estimate("1")).isEqualTo(4);
+        assertThat(tracker.topKeys(10)).containsOnlyKeys("1");
+    }
+}
@@ -0,0 +1,53 @@
+package innowise.user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheMetricsTest {
+
+    @Mock
+    private RedisCacheTier remoteCache;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testHitsAndMissesAreAggregatedAcrossTiers() {
+        when(remoteCache.stats()).thenReturn(new CacheTierStats(2, 3, 4, 0));
+        TwoTierCache cache = new TwoTierCache("user",
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+                remoteCache,
+                invalidationPublisher);
+        cache.put(1L, "value");
+        cache.get(1L);
+
+        new TwoTierCacheMetrics(cache, Tags.empty()).bindTo(registry);
+
+        assertEquals(3.0, registry.get("cache.gets").tags("cache", "user", "result", "hit")
+                .functionCounter().count());
+        assertEquals(3.0, registry.get("cache.gets").tags("cache", "user", "result", "miss")
+                .functionCounter().count());
+        assertEquals(4.0, registry.get("cache.puts").tags("cache", "user").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.tier.gets").tags("tier", "near", "result", "hit")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("cache.tier.gets").tags("tier", "remote", "result", "hit")
+                .functionCounter().count());
+    }
+}
@@ -0,0 +1,177 @@
+package innowise.user_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import innowise.user_service.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private RedisCacheTier remoteCache;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private TwoTierCache cache;
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TwoTierCache("user",
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+                remoteCache,
+                invalidationPublisher);
+
+        userDto = UserDto.builder()
+                .id(USER_ID)
+                .name("John")
+                .surname("Doe")
+                .email("john.doe@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    @Test
+    void testGetFromNearCacheDoesNotTouchRedis() {
+        cache.put(USER_ID, userDto);
+
+        assertEquals(userDto, cache.get(USER_ID, UserDto.class));
+        verify(remoteCache, never()).get(anyString());
+        assertEquals(1, cache.stats().near().hits());
+    }
+
+    @Test
+    void testGetFromRedisPopulatesNearCache() {
+        when(remoteCache.get("1")).thenReturn(userDto);
+
+        assertEquals(userDto, cache.get(USER_ID, UserDto.class));
+        assertEquals(userDto, cache.get(USER_ID, UserDto.class));
+
+        verify(remoteCache, times(1)).get("1");
+        assertEquals(1, cache.stats().nearSize());
+    }
+
+    @Test
+    void testGetWithLoaderStoresLoadedValueInBothTiers() {
+        when(remoteCache.getEntry("1")).thenReturn(new RedisCacheTier.Entry(null, false));
+
+        UserDto result = cache.get(USER_ID, () -> userDto);
+
+        assertEquals(userDto, result);
+        verify(remoteCache).put("1", userDto);
+        verify(invalidationPublisher).publishEvict("user", "1");
+    }
+
+    @Test
+    void testConcurrentMissesRunSingleLoader() throws Exception {
+        int callers = 1000;
+        when(remoteCache.getEntry("1")).thenReturn(new RedisCacheTier.Entry(null, false));
+        AtomicInteger loads = new AtomicInteger();
+        Callable<UserDto> loader = () -> {
+            loads.incrementAndGet();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cache.getCoalescedLoads() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return userDto;
+        };
+
+        List<Future<UserDto>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(USER_ID, loader)));
+            }
+            for (Future<UserDto> result : results) {
+                assertEquals(userDto, result.get());
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers - 1, cache.getCoalescedLoads());
+        verify(remoteCache, times(1)).put("1", userDto);
+    }
+
+    @Test
+    void testLoaderFailureIsSharedWithWaiters() {
+        when(remoteCache.getEntry("1")).thenReturn(new RedisCacheTier.Entry(null, false));
+
+        Cache.ValueRetrievalException exception = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(USER_ID, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals("boom", exception.getCause().getMessage());
+        verify(remoteCache, never()).put(anyString(), any());
+    }
+
+    @Test
+    void testEarlyRefreshReloadsValueStillInRedis() {
+        UserDto refreshed = UserDto.builder().id(USER_ID).name("Johnny").build();
+        when(remoteCache.getEntry("1")).thenReturn(new RedisCacheTier.Entry(userDto, true));
+
+        UserDto result = cache.get(USER_ID, () -> refreshed);
+
+        assertEquals(refreshed, result);
+        assertEquals(1, cache.getEarlyRefreshes());
+        verify(remoteCache).put("1", refreshed);
+    }
+
+    @Test
+    void testEvictRemovesFromBothTiersAndPublishes() {
+        cache.put(USER_ID, userDto);
+
+        cache.evict(USER_ID);
+
+        assertNull(cache.get(USER_ID));
+        verify(remoteCache).evict("1");
+        verify(invalidationPublisher, times(2)).publishEvict("user", "1");
+    }
+
+    @Test
+    void testInvalidateLocalLeavesRedisUntouched() {
+        cache.put(USER_ID, userDto);
+
+        cache.invalidateLocal("1");
+
+        assertEquals(0, cache.stats().nearSize());
+        verify(remoteCache, never()).evict(anyString());
+        verify(invalidationPublisher, times(1)).publishEvict(anyString(), anyString());
+    }
+
+    @Test
+    void testClearPublishesClear() {
+        cache.clear();
+
+        verify(remoteCache).clear();
+        verify(invalidationPublisher).publishClear("user");
+        verify(remoteCache, never()).put(anyString(), any());
+    }
+}
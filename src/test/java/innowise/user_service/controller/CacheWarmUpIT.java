@@ -0,0 +1,90 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.cache.HotKeySnapshotStore;
+import innowise.user_service.cache.HotKeySnapshotter;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.service.UserCacheWarmer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CacheWarmUpIT extends BaseIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HotKeySnapshotter hotKeySnapshotter;
+
+    @Autowired
+    private HotKeySnapshotStore hotKeySnapshotStore;
+
+    @Autowired
+    private UserCacheWarmer userCacheWarmer;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        stringRedisTemplate.delete(hotKeySnapshotStore.snapshotKey("user"));
+        userIds.clear();
+        for (int i = 0; i < 5; i++) {
+            userIds.add(userService.createUser(UserDto.builder()
+                    .name("John")
+                    .surname("Doe")
+                    .email("warm-up-" + i + "@example.com")
+                    .birthDate(LocalDate.of(1990, 1, 1))
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    void shouldPreloadHotUsersFromSnapshot() throws Exception {
+        Long hotId = userIds.getFirst();
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(get("/users/{id}", hotId)).andExpect(status().isOk());
+        }
+        hotKeySnapshotter.snapshot();
+        assertThat(hotKeySnapshotStore.load("user")).startsWith(String.valueOf(hotId));
+        cacheManager.getCache("user").clear();
+
+        int loaded = userCacheWarmer.warmUp();
+
+        assertThat(loaded).isPositive();
+        assertThat(cacheManager.getCache("user").get(hotId, UserDto.class))
+                .extracting(UserDto::getEmail)
+                .isEqualTo("warm-up-0@example.com");
+    }
+
+    @Test
+    void shouldMergeNodeSnapshotsAndAgeOutColdKeys() {
+        hotKeySnapshotStore.save("user", Map.of("1", 10L));
+        hotKeySnapshotStore.save("user", Map.of("2", 4L));
+
+        assertThat(hotKeySnapshotStore.load("user")).containsExactly("1", "2");
+
+        hotKeySnapshotStore.save("user", Map.of("2", 4L));
+
+        assertThat(hotKeySnapshotStore.load("user")).containsExactly("2", "1");
+    }
+
+    @Test
+    void shouldSkipWarmUpWithoutSnapshot() {
+        assertThat(userCacheWarmer.warmUp()).isZero();
+    }
+}
@@ -5,13 +5,17 @@ import innowise.user_service.dto.UserDto;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 
 import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -20,6 +24,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Transactional
 class CardControllerIT extends BaseIT {
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private CardDto cardDto;
     private Long userId;
 
@@ -55,6 +62,22 @@ class CardControllerIT extends BaseIT {
                 .andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    void shouldEvictOwnerCachesWhenCardIsCreated() throws Exception {
+        mockMvc.perform(get("/users/{id}", userId)).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}/cards", userId)).andExpect(status().isOk());
+        assertThat(cacheManager.getCache("user").get(userId)).isNotNull();
+        assertThat(cacheManager.getCache("userCards").get(userId)).isNotNull();
+
+        mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cardDto)))
+                .andExpect(status().isCreated());
+
+        assertThat(cacheManager.getCache("user").get(userId)).isNull();
+        assertThat(cacheManager.getCache("userCards").get(userId)).isNull();
+    }
+
     @Test
     void shouldGetCardById() throws Exception {
         String createdCardJson = mockMvc.perform(post("/cards")
@@ -126,6 +149,55 @@ class CardControllerIT extends BaseIT {
                 .andExpect(jsonPath("$.id").value(createdCard.getId()));
     }
 
+    @Test
+    void shouldRejectUpdateToTakenNumber() throws Exception {
+        mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cardDto)))
+                .andExpect(status().isCreated());
+        CardDto otherCardDto = CardDto.builder()
+                .userId(userId)
+                .number("9876543210987654")
+                .holder("Jane Smith")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+        String otherCardJson = mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherCardDto)))
+                .andReturn().getResponse().getContentAsString();
+        CardDto otherCard = objectMapper.readValue(otherCardJson, CardDto.class);
+
+        otherCardDto.setNumber(cardDto.getNumber());
+        mockMvc.perform(put("/cards/{id}", otherCard.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherCardDto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldRejectPatchToTakenNumber() throws Exception {
+        mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cardDto)))
+                .andExpect(status().isCreated());
+        CardDto otherCardDto = CardDto.builder()
+                .userId(userId)
+                .number("9876543210987654")
+                .holder("Jane Smith")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+        String otherCardJson = mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherCardDto)))
+                .andReturn().getResponse().getContentAsString();
+        CardDto otherCard = objectMapper.readValue(otherCardJson, CardDto.class);
+
+        mockMvc.perform(patch("/cards/{id}", otherCard.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"number\":\"" + cardDto.getNumber() + "\"}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void shouldDeleteCardById() throws Exception {
         String createdCardJson = mockMvc.perform(post("/cards")
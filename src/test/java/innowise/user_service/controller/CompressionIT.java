@@ -0,0 +1,81 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.liquibase.enabled=false"})
+class CompressionIT extends BaseIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private String ids;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        List<UserDto> users = IntStream.range(0, 200)
+                .mapToObj(i -> UserDto.builder()
+                        .name("John")
+                        .surname("Doe")
+                        .email("compression" + i + "@example.com")
+                        .birthDate(LocalDate.of(1990, 1, 1))
+                        .build())
+                .toList();
+        ids = userService.createUsers(users).stream()
+                .map(result -> String.valueOf(result.getBody().getId()))
+                .collect(Collectors.joining(","));
+    }
+
+    @Test
+    void testListResponseIsGzippedWhenAccepted() throws IOException {
+        ResponseEntity<byte[]> plain = list(null);
+        ResponseEntity<byte[]> gzipped = list("gzip");
+
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertThat(body.readAllBytes()).isEqualTo(plain.getBody());
+        }
+        assertThat(gzipped.getBody().length).isLessThan(plain.getBody().length / 4);
+    }
+
+    @Test
+    void testSmallResponsesStayUncompressed() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = restTemplate.exchange("/users/list?ids=" + ids.split(",")[0],
+                HttpMethod.POST, new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    private ResponseEntity<byte[]> list(String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return restTemplate.exchange("/users/list?ids=" + ids, HttpMethod.POST, new HttpEntity<>(headers),
+                byte[].class);
+    }
+}
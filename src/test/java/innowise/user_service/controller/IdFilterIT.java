@@ -0,0 +1,92 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.bloom.IdFilterLoader;
+import innowise.user_service.bloom.IdFilters;
+import innowise.user_service.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "id-filter.enabled=true")
+class IdFilterIT extends BaseIT {
+
+    @Autowired
+    private IdFilterLoader idFilterLoader;
+
+    @Autowired
+    private IdFilters idFilters;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDto existingUser;
+    private long removedUserId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        existingUser = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("id-filter@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        removedUserId = userService.createUser(UserDto.builder()
+                .name("Removed")
+                .surname("Doe")
+                .email("id-filter-removed@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build()).getId();
+        jdbcTemplate.update("delete from users where id = ?", removedUserId);
+        idFilterLoader.rebuildAll();
+    }
+
+    @Test
+    void testUnknownIdsAreRejectedFromTheFilter() throws Exception {
+        long rejectionsBefore = idFilters.get(IdFilters.USERS).getRejections();
+
+        mockMvc.perform(get("/users/{id}", existingUser.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", removedUserId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/{id}/cards", removedUserId)).andExpect(status().isNotFound());
+
+        assertThat(idFilters.get(IdFilters.USERS).getRejections()).isGreaterThan(rejectionsBefore);
+        assertThat(meterRegistry.get("id.filter.false.positive.probability").tag("filter", "user").gauge().value())
+                .isLessThan(0.01);
+    }
+
+    @Test
+    void testUsersCreatedAfterTheBuildAreFound() throws Exception {
+        UserDto createdUser = userService.createUser(UserDto.builder()
+                .name("Jane")
+                .surname("Doe")
+                .email("id-filter-new@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+
+        mockMvc.perform(get("/users/{id}", createdUser.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void testUsersWhoseAnnouncementWasDroppedAreStillFound() throws Exception {
+        long reservedId = jdbcTemplate.queryForObject("select nextval('users_id_seq')", Long.class);
+        idFilterLoader.rebuildAll();
+        jdbcTemplate.update("""
+                insert into users (id, name, surname, birth_date, email, version)
+                values (?, 'Other', 'Node', date '1990-01-01', 'other-node@example.com', 0)""", reservedId);
+        assertThat(idFilters.userMissing(reservedId)).isTrue();
+
+        mockMvc.perform(get("/users/{id}", reservedId)).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}/cards", reservedId)).andExpect(status().isOk());
+        assertThat(idFilters.userMissing(reservedId)).isFalse();
+        mockMvc.perform(delete("/users/{id}", reservedId)).andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,50 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureObservability
+class MetricsIT extends BaseIT {
+
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        user = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("metrics@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+    }
+
+    @Test
+    void testPrometheusEndpointExposesServiceRepositoryPoolAndCacheMetrics() throws Exception {
+        mockMvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("service_calls_seconds_bucket{")
+                .contains("method=\"getUserById\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("hikaricp_connections_active")
+                .contains("commons_pool2_num_active")
+                .contains("cache_gets_total{")
+                .contains("cache_tier_gets_total{")
+                .doesNotContain(user.getEmail())
+                .doesNotContain("id=\"" + user.getId() + "\"");
+    }
+}
@@ -0,0 +1,207 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.outbox.InMemoryOutboxSink;
+import innowise.user_service.outbox.OutboxEventType;
+import innowise.user_service.outbox.OutboxMessage;
+import innowise.user_service.outbox.OutboxWriter;
+import innowise.user_service.outbox.RedisStreamOutboxSink;
+import innowise.user_service.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"outbox.sink=memory", "outbox.relay.poll-interval=20ms"})
+class OutboxIT extends BaseIT {
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+        outboxSink.clear();
+    }
+
+    @Test
+    void shouldRelayUserAndCardEventsInOrder() throws Exception {
+        UserDto user = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("outbox@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        Long userId = user.getId();
+        user.setName("Johnny");
+        mockMvc.perform(put("/users/{id}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isOk());
+        CardDto card = CardDto.builder()
+                .userId(userId)
+                .number("1234567890123456")
+                .holder("John Doe")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+        mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(card)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/users/{id}", userId)).andExpect(status().isNoContent());
+
+        List<OutboxMessage> events = awaitEvents(userId, published -> published.size() >= 4);
+
+        assertThat(events).extracting(OutboxMessage::eventType)
+                .containsExactly("USER_CREATED", "USER_UPDATED", "CARD_CREATED", "USER_DELETED");
+        assertThat(events).extracting(OutboxMessage::id).isSorted();
+        assertThat(events.get(1).payload()).contains("Johnny");
+        assertThat(events).extracting(OutboxMessage::partition).containsOnly(events.getFirst().partition());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_event", Long.class)).isZero();
+    }
+
+    @Test
+    void shouldAllocateIdsInCommitOrderForEventsOfTheSameUser() throws Exception {
+        Long userId = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("ordering@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build()).getId();
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                outboxWriter.append(OutboxEventType.CARD_UPDATED, 1L, userId, null);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        firstInserted.countDown();
+                        awaitQuietly(releaseFirst);
+                    }
+                });
+            }));
+            assertThat(firstInserted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    outboxWriter.append(OutboxEventType.CARD_UPDATED, 2L, userId, null)));
+
+            Thread.sleep(300);
+            assertThat(second.isDone()).isFalse();
+            releaseFirst.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            releaseFirst.countDown();
+            executor.shutdownNow();
+        }
+
+        List<OutboxMessage> events = awaitEvents(userId, published -> published.size() >= 3);
+
+        assertThat(events).extracting(OutboxMessage::aggregateId).containsExactly(userId, 1L, 2L);
+        assertThat(events).extracting(OutboxMessage::id).isSorted();
+    }
+
+    @Test
+    void shouldNotRecordEventsOfRolledBackTransactions() throws Exception {
+        userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("taken@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        UserDto duplicate = UserDto.builder()
+                .name("Jane")
+                .surname("Doe")
+                .email("taken@example.com")
+                .birthDate(LocalDate.of(1991, 1, 1))
+                .build();
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isBadRequest());
+
+        List<OutboxMessage> events = awaitEvents(null, published -> !published.isEmpty());
+        Thread.sleep(200);
+        assertThat(outboxSink.getPublished()).hasSize(events.size())
+                .extracting(OutboxMessage::eventType).containsExactly("USER_CREATED");
+    }
+
+    @Test
+    void redisStreamSinkAppendsToPartitionStream() {
+        RedisStreamOutboxSink sink = new RedisStreamOutboxSink(stringRedisTemplate, "outbox-it", 1000);
+        stringRedisTemplate.delete(sink.streamKey(3));
+
+        sink.publish(List.of(
+                new OutboxMessage(1L, 3, "USER", 7L, 7L, "USER_CREATED", "{\"id\":7}", Instant.now()),
+                new OutboxMessage(2L, 3, "USER", 7L, 7L, "USER_DELETED", null, Instant.now())));
+
+        List<MapRecord<String, Object, Object>> records =
+                stringRedisTemplate.opsForStream().range(sink.streamKey(3), Range.unbounded());
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getValue()).containsEntry("type", "USER_CREATED").containsEntry("payload", "{\"id\":7}");
+        assertThat(records.get(1).getValue()).containsEntry("id", "2").doesNotContainKey("payload");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<OutboxMessage> awaitEvents(Long userId, Predicate<List<OutboxMessage>> condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<OutboxMessage> events;
+        do {
+            events = outboxSink.getPublished().stream()
+                    .filter(event -> userId == null || userId.equals(event.userId()))
+                    .toList();
+            if (condition.test(events)) {
+                return events;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        return events;
+    }
+}
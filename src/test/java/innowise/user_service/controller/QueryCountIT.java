@@ -0,0 +1,221 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.service.CardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QueryCountIT extends BaseIT {
+
+    private static final int USER_COUNT = 20;
+    private static final int CARDS_PER_USER = 3;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<UserDto> users = new ArrayList<>();
+    private final List<Long> cardIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        users.clear();
+        cardIds.clear();
+
+        for (int i = 0; i < USER_COUNT; i++) {
+            UserDto user = userService.createUser(UserDto.builder()
+                    .name("User" + i)
+                    .surname("Doe")
+                    .email("user" + i + "@example.com")
+                    .birthDate(LocalDate.of(1990, 1, 1))
+                    .build());
+            users.add(user);
+            for (int j = 0; j < CARDS_PER_USER; j++) {
+                CardDto card = cardService.createCard(CardDto.builder()
+                        .userId(user.getId())
+                        .number(String.format("%08d%08d", i, j))
+                        .holder("Holder " + i + "-" + j)
+                        .expirationDate(LocalDate.now().plusYears(1))
+                        .build());
+                cardIds.add(card.getId());
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetUserByIdIssuesSingleStatement() throws Exception {
+        mockMvc.perform(get("/users/{id}", users.getFirst().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardIds", hasSize(CARDS_PER_USER)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentMissesForSameUserIssueSingleStatement() throws Exception {
+        Long id = users.getFirst().getId();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserDto>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.getUserById(id);
+                }));
+            }
+            start.countDown();
+            for (Future<UserDto> result : results) {
+                assertThat(result.get().getId()).isEqualTo(id);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetUsersByIdsIssuesSingleStatement() throws Exception {
+        String[] ids = users.stream().map(user -> user.getId().toString()).toArray(String[]::new);
+
+        mockMvc.perform(post("/users/list").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(USER_COUNT)))
+                .andExpect(jsonPath("$[0].cardIds", hasSize(CARDS_PER_USER)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testRepeatedGetUsersByIdsIsServedFromCache() throws Exception {
+        String[] ids = users.stream().map(user -> user.getId().toString()).toArray(String[]::new);
+        mockMvc.perform(post("/users/list").param("ids", ids))
+                .andExpect(header().string("X-Cache-Misses", String.valueOf(USER_COUNT)));
+        statistics.clear();
+
+        mockMvc.perform(post("/users/list").param("ids", ids[1], ids[0], ids[1]))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cache-Hits", "2"))
+                .andExpect(header().string("X-Cache-Misses", "0"))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(users.get(1).getId()))
+                .andExpect(jsonPath("$[1].id").value(users.get(0).getId()));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void testGetUserByEmailIssuesSingleStatement() throws Exception {
+        mockMvc.perform(get("/users/email/{email}", users.getFirst().getEmail()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardIds", hasSize(CARDS_PER_USER)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testRepeatedGetUserByEmailIsServedFromCache() throws Exception {
+        String email = users.get(1).getEmail();
+        mockMvc.perform(get("/users/email/{email}", email)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/users/email/{email}", email))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void testGetCardByIdIssuesSingleStatement() throws Exception {
+        mockMvc.perform(get("/cards/{id}", cardIds.getFirst()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(users.getFirst().getId()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetCardsByIdsIssuesSingleStatement() throws Exception {
+        String[] ids = cardIds.stream().map(String::valueOf).toArray(String[]::new);
+
+        mockMvc.perform(post("/cards/list").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(cardIds.size())));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeleteUserByIdLoadsNoEntities() throws Exception {
+        UserDto user = users.getFirst();
+        mockMvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(delete("/users/{id}", user.getId())).andExpect(status().isNoContent());
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        mockMvc.perform(get("/users/{id}", user.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/email/{email}", user.getEmail())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/cards/{id}", cardIds.getFirst())).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/users/{id}", user.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDeleteCardByIdLoadsNoEntitiesAndBumpsOwnerVersion() throws Exception {
+        Long userId = users.getFirst().getId();
+        String etag = mockMvc.perform(get("/users/{id}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        mockMvc.perform(delete("/cards/{id}", cardIds.getFirst())).andExpect(status().isNoContent());
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.cardIds", hasSize(CARDS_PER_USER - 1)));
+        mockMvc.perform(delete("/cards/{id}", cardIds.getFirst())).andExpect(status().isNotFound());
+    }
+}
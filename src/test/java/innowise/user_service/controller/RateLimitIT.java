@@ -0,0 +1,89 @@
+package innowise.user_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.key-prefix=it:rate-limit",
+        "rate-limit.trusted-proxies=127.0.0.1",
+        "rate-limit.lease-size=2",
+        "rate-limit.default-limit.capacity=100",
+        "rate-limit.default-limit.refill-per-second=100",
+        "rate-limit.endpoints[0].name=users-list",
+        "rate-limit.endpoints[0].method=POST",
+        "rate-limit.endpoints[0].path=/users/list",
+        "rate-limit.endpoints[0].capacity=5",
+        "rate-limit.endpoints[0].refill-per-second=0.1",
+        "rate-limit.endpoints[0].ids-per-token=100"
+})
+class RateLimitIT extends BaseIT {
+
+    @Test
+    void testClientIsThrottledPerEndpointWithRetryAfter() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/users/list").param("ids", "1").header("X-Client-Id", "greedy"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/users/list").param("ids", "1").header("X-Client-Id", "greedy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, not("0")));
+
+        mockMvc.perform(post("/users/list").param("ids", "1").header("X-Client-Id", "polite"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/cards/list").param("ids", "1").header("X-Client-Id", "greedy"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testClientIdHeaderIsIgnoredFromUntrustedAddresses() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/users/list").param("ids", "1").header("X-Client-Id", "rotated-" + i)
+                            .with(remoteAddress("10.0.0.7")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/users/list").param("ids", "1").header("X-Client-Id", "rotated-5")
+                        .with(remoteAddress("10.0.0.7")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/users/list").param("ids", "1").with(remoteAddress("10.0.0.8")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testLargeIdListsCostMoreTokens() throws Exception {
+        String ids = LongStream.rangeClosed(1, 500).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(post("/users/list").param("ids", ids).header("X-Client-Id", "bulk"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/users/list").param("ids", ids).header("X-Client-Id", "bulk"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testIdListsAboveTheCapAreRejected() throws Exception {
+        String ids = LongStream.rangeClosed(1, 1001).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(post("/users/list").param("ids", ids).header("X-Client-Id", "capped"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.datasource.ReadYourWritesFilter;
+import innowise.user_service.dto.UserDto;
+import jakarta.servlet.http.Cookie;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReplicaRoutingIT extends BaseIT {
+
+    private static final long REPLICA_ONLY_USER_ID = 1_000_000L;
+
+    @Container
+    public static final PostgreSQLContainer<?> REPLICA_CONTAINER =
+            new PostgreSQLContainer<>("postgres:15")
+                    .withDatabaseName("replicadb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("replicas.enabled", () -> "true");
+        registry.add("replicas.health-check-interval", () -> "200ms");
+        registry.add("replicas.nodes[0].url", REPLICA_CONTAINER::getJdbcUrl);
+        registry.add("replicas.nodes[0].username", REPLICA_CONTAINER::getUsername);
+        registry.add("replicas.nodes[0].password", REPLICA_CONTAINER::getPassword);
+    }
+
+    @BeforeAll
+    static void createReplicaSchema() throws Exception {
+        DriverManagerDataSource replica = new DriverManagerDataSource(
+                REPLICA_CONTAINER.getJdbcUrl(), REPLICA_CONTAINER.getUsername(), REPLICA_CONTAINER.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(replica);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        new JdbcTemplate(replica).update(
+                "insert into users (id, name, surname, birth_date, email) values (?, ?, ?, ?, ?)",
+                REPLICA_ONLY_USER_ID, "Replica", "Only", LocalDate.of(1990, 1, 1), "replica@example.com");
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        Thread.sleep(500);
+    }
+
+    @Test
+    void testReadOnlyRequestIsServedByReplica() throws Exception {
+        mockMvc.perform(get("/users").param("after", String.valueOf(REPLICA_ONLY_USER_ID - 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Replica"));
+    }
+
+    @Test
+    void testCachedReadsAreLoadedFromPrimary() throws Exception {
+        mockMvc.perform(get("/users/{id}", REPLICA_ONLY_USER_ID))
+                .andExpect(status().isNotFound());
+
+        assertNull(cacheManager.getCache("user").get(REPLICA_ONLY_USER_ID));
+    }
+
+    @Test
+    void testReadAfterWriteIsPinnedToPrimary() throws Exception {
+        UserDto userDto = UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("pinned@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+        MvcResult created = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn();
+        Long id = objectMapper.readValue(created.getResponse().getContentAsString(), UserDto.class).getId();
+        Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/users/{id}", id).cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("pinned@example.com"));
+    }
+}
@@ -0,0 +1,117 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.service.CardService;
+import innowise.user_service.softdelete.SoftDeletePurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "soft-delete.purge.enabled=true",
+        "soft-delete.purge.interval=1h",
+        "soft-delete.purge.grace-period=0s",
+        "soft-delete.purge.batch-size=2",
+        "soft-delete.purge.pause-between-batches=0s"})
+class SoftDeleteIT extends BaseIT {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private SoftDeletePurger softDeletePurger;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        user = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("soft-delete@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        for (int i = 0; i < 3; i++) {
+            cardService.createCard(CardDto.builder()
+                    .userId(user.getId())
+                    .number(String.format("%016d", i))
+                    .holder("Soft Delete " + i)
+                    .expirationDate(LocalDate.now().plusYears(1))
+                    .build());
+        }
+    }
+
+    @Test
+    void testDeletedUserIsHiddenAndItsEmailCanBeReused() throws Exception {
+        mockMvc.perform(delete("/users/{id}", user.getId())).andExpect(status().isNoContent());
+
+        assertThat(countRows("users", "deleted_at is not null")).isEqualTo(1);
+        assertThat(countRows("card_info", "deleted_at is not null")).isEqualTo(3);
+        mockMvc.perform(get("/users/{id}", user.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/users/{id}", user.getId())).andExpect(status().isNotFound());
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+
+        UserDto sameEmail = UserDto.builder()
+                .name("Jane")
+                .surname("Doe")
+                .email(user.getEmail())
+                .birthDate(LocalDate.of(1991, 1, 1))
+                .build();
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sameEmail)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void testCardCannotBeAddedToDeletedUser() throws Exception {
+        mockMvc.perform(delete("/users/{id}", user.getId())).andExpect(status().isNoContent());
+
+        CardDto card = CardDto.builder()
+                .userId(user.getId())
+                .number("9999999999999999")
+                .holder("Too Late")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+        mockMvc.perform(post("/cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(card)))
+                .andExpect(status().isNotFound());
+
+        assertThat(countRows("card_info", "deleted_at is null")).isZero();
+    }
+
+    @Test
+    void testPurgerRemovesSoftDeletedRowsInBatches() throws Exception {
+        mockMvc.perform(delete("/users/{id}", user.getId())).andExpect(status().isNoContent());
+
+        assertThat(softDeletePurger.purge()).isEqualTo(4);
+
+        assertThat(countRows("users", "true")).isZero();
+        assertThat(countRows("card_info", "true")).isZero();
+        assertThat(meterRegistry.get("soft.delete.backlog").tag("table", "card_info").gauge().value()).isZero();
+        assertThat(meterRegistry.get("soft.delete.purged").tag("table", "card_info").counter().count())
+                .isGreaterThanOrEqualTo(3);
+    }
+
+    private long countRows(String table, String condition) {
+        return jdbcTemplate.queryForObject(
+                String.format("select count(*) from %s where %s", table, condition), Long.class);
+    }
+}
@@ -0,0 +1,121 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.service.CardService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionalEvictionIT extends BaseIT {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService reader = Executors.newSingleThreadExecutor();
+
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        user = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("eviction@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.shutdownNow();
+    }
+
+    @Test
+    void testReaderDuringCardCreateDoesNotCacheStaleCardIds() {
+        assertThat(userService.getUserById(user.getId()).getCardIds()).isEmpty();
+
+        CardDto card = transactionTemplate.execute(status -> {
+            CardDto created = cardService.createCard(CardDto.builder()
+                    .userId(user.getId())
+                    .number("1111222233334444")
+                    .holder("Eviction Create")
+                    .expirationDate(LocalDate.now().plusYears(1))
+                    .build());
+            assertThat(readConcurrently().getCardIds()).isEmpty();
+            return created;
+        });
+
+        assertThat(userService.getUserById(user.getId()).getCardIds()).containsExactly(card.getId());
+    }
+
+    @Test
+    void testReaderDuringCardDeleteDoesNotCacheStaleCardIds() {
+        CardDto card = cardService.createCard(CardDto.builder()
+                .userId(user.getId())
+                .number("5555666677778888")
+                .holder("Eviction Delete")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build());
+        assertThat(userService.getUserById(user.getId()).getCardIds()).containsExactly(card.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cardService.deleteCardById(card.getId());
+            assertThat(readConcurrently().getCardIds()).containsExactly(card.getId());
+        });
+
+        assertThat(userService.getUserById(user.getId()).getCardIds()).isEmpty();
+    }
+
+    @Test
+    void testReaderDuringBulkCardCreateDoesNotCacheStaleUserCards() {
+        assertThat(cardService.getCardsByUserId(user.getId(), null, 20).getItems()).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cardService.createCards(List.of(CardDto.builder()
+                    .userId(user.getId())
+                    .number("9999000011112222")
+                    .holder("Eviction Bulk")
+                    .expirationDate(LocalDate.now().plusYears(1))
+                    .build()));
+            assertThat(readUserCardsConcurrently()).isEmpty();
+        });
+
+        assertThat(cardService.getCardsByUserId(user.getId(), null, 20).getItems()).hasSize(1);
+    }
+
+    private List<CardDto> readUserCardsConcurrently() {
+        try {
+            return reader.submit(() -> cardService.getCardsByUserId(user.getId(), null, 20).getItems()).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private UserDto readConcurrently() {
+        try {
+            return reader.submit(() -> userService.getUserById(user.getId())).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
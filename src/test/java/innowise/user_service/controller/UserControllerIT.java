@@ -3,16 +3,21 @@ package innowise.user_service.controller;
 import innowise.user_service.dto.UserDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,6 +50,19 @@ class UserControllerIT extends BaseIT {
                 .andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    void testCreateUserWithExistingEmail() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetUserById() throws Exception {
         String createdUserJson = mockMvc.perform(post("/users")
@@ -91,6 +109,36 @@ class UserControllerIT extends BaseIT {
                 .andExpect(jsonPath("$[1].id").value(user2.getId()));
     }
 
+    @Test
+    void testGetUsersPage() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = userService.createUser(UserDto.builder()
+                    .name("Page")
+                    .surname("User" + i)
+                    .email("page.user" + i + "@example.com")
+                    .birthDate(LocalDate.of(1990, 1, 1))
+                    .build()).getId();
+        }
+
+        mockMvc.perform(get("/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(ids[0]))
+                .andExpect(jsonPath("$.nextCursor").value(ids[1]));
+
+        mockMvc.perform(get("/users").param("after", ids[1].toString()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(ids[2]))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+        mockMvc.perform(get("/users").param("name", "Page").param("surname", "User1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(ids[1]));
+    }
+
     @Test
     void testGetUserByEmail() throws Exception {
         String createdUserJson = mockMvc.perform(post("/users")
@@ -130,6 +178,92 @@ class UserControllerIT extends BaseIT {
                 .andExpect(jsonPath("$.id").value(createdUser.getId()));
     }
 
+    @Test
+    void testGetUserByIdReturnsNotModifiedForCurrentETag() throws Exception {
+        UserDto createdUser = userService.createUser(userDto);
+
+        String eTag = mockMvc.perform(get("/users/{id}", createdUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{id}", createdUser.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testUpdateUserByIdHonoursIfMatch() throws Exception {
+        UserDto createdUser = userService.createUser(userDto);
+        UserDto updateDto = UserDto.builder()
+                .name("Updated")
+                .surname("User")
+                .email("updated.email@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+
+        mockMvc.perform(put("/users/{id}", createdUser.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/users/{id}", createdUser.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/users/{id}", createdUser.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void testPatchUserById() throws Exception {
+        UserDto createdUser = userService.createUser(userDto);
+
+        mockMvc.perform(patch("/users/{id}", createdUser.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"email\":\"john.patched@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.email").value("john.patched@example.com"))
+                .andExpect(jsonPath("$.name").value(userDto.getName()));
+
+        mockMvc.perform(get("/users/{id}", createdUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.email").value("john.patched@example.com"));
+
+        mockMvc.perform(get("/users/email/{email}", "john.patched@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(createdUser.getId()));
+    }
+
+    @Test
+    void testPatchUserByIdRejectsStaleOrInvalidPatch() throws Exception {
+        UserDto createdUser = userService.createUser(userDto);
+
+        mockMvc.perform(patch("/users/{id}", createdUser.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\":\"Jane\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/users/{id}", createdUser.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"id\":42}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/users/{id}", createdUser.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"email\":null}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testDeleteUserById() throws Exception {
         String createdUserJson = mockMvc.perform(post("/users")
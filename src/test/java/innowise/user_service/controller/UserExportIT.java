@@ -0,0 +1,89 @@
+package innowise.user_service.controller;
+
+import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.UserDto;
+import innowise.user_service.service.CardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserExportIT extends BaseIT {
+
+    @Autowired
+    private CardService cardService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testExportUsersAsNdjson() throws Exception {
+        UserDto john = userService.createUser(UserDto.builder()
+                .name("John")
+                .surname("Doe")
+                .email("john.doe@example.com")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        UserDto jane = userService.createUser(UserDto.builder()
+                .name("Jane")
+                .surname("Smith")
+                .email("jane.smith@example.com")
+                .birthDate(LocalDate.of(1995, 5, 15))
+                .build());
+        CardDto card = cardService.createCard(CardDto.builder()
+                .userId(john.getId())
+                .number("1234567890123456")
+                .holder("John Doe")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        List<UserDto> exported = body.lines()
+                .map(this::readUser)
+                .toList();
+        assertThat(exported).extracting(UserDto::getId).containsExactly(john.getId(), jane.getId());
+        assertThat(exported.get(0).getCardIds()).containsExactly(card.getId());
+        assertThat(exported.get(1).getCardIds()).isEmpty();
+    }
+
+    @Test
+    void testExportWithoutUsersIsEmpty() throws Exception {
+        MvcResult result = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    private UserDto readUser(String line) {
+        try {
+            return objectMapper.readValue(line, UserDto.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid NDJSON line: " + line, e);
+        }
+    }
+}
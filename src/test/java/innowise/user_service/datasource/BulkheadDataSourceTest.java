@@ -0,0 +1,62 @@
+package innowise.user_service.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testPermitReleasedOnClose() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, Duration.ofMillis(10));
+
+        Connection first = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testGetConnectionWhenBulkheadIsFull() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, Duration.ofMillis(10));
+
+        dataSource.getConnection();
+
+        assertThrows(BulkheadFullException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void testPermitReleasedWhenTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        BulkheadDataSource dataSource = new BulkheadDataSource(target, 1, Duration.ofMillis(10));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
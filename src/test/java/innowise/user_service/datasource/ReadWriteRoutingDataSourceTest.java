@@ -0,0 +1,156 @@
+package innowise.user_service.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+    private static final Duration MAX_REPLICATION_LAG = Duration.ofSeconds(5);
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    @Mock
+    private Statement lagStatement;
+
+    @Mock
+    private ResultSet lagResult;
+
+    private ReplicaPool replicaPool;
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(firstReplica.getConnection()).thenReturn(firstConnection);
+        lenient().when(secondReplica.getConnection()).thenReturn(secondConnection);
+        lenient().when(firstConnection.isValid(anyInt())).thenReturn(true);
+        lenient().when(secondConnection.isValid(anyInt())).thenReturn(true);
+        lenient().when(firstConnection.createStatement()).thenReturn(lagStatement);
+        lenient().when(secondConnection.createStatement()).thenReturn(lagStatement);
+        lenient().when(lagStatement.executeQuery(anyString())).thenReturn(lagResult);
+        lenient().when(lagResult.next()).thenReturn(true);
+        lenient().when(lagResult.getLong(1)).thenReturn(0L);
+
+        replicaPool = new ReplicaPool(
+                List.of(new Replica("replica-0", firstReplica, MAX_REPLICATION_LAG),
+                        new Replica("replica-1", secondReplica, MAX_REPLICATION_LAG)),
+                ReplicaProperties.Selection.ROUND_ROBIN,
+                Duration.ofHours(1));
+        replicaPool.checkHealth();
+        dataSource = new ReadWriteRoutingDataSource(primary, replicaPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+        replicaPool.close();
+    }
+
+    @Test
+    void testWritesGoToPrimary() throws SQLException {
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testReadOnlyTransactionsAreBalancedAcrossReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testPinnedReadsGoToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWritesContext.pin();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testReadsInsideOnPrimaryGoToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, ReadYourWritesContext.onPrimary(this::connection));
+        assertFalse(ReadYourWritesContext.isPinned());
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testFailingReplicaIsMarkedDownAndReadFallsBackToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(replicaPool.getReplicas().getFirst().isHealthy());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testLaggingReplicaIsTakenOutOfRotation() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagResult.getLong(1)).thenReturn(60_000L, 0L);
+        replicaPool.checkHealth();
+
+        assertFalse(replicaPool.getReplicas().getFirst().isHealthy());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testAllReplicasDownFallsBackToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstConnection.isValid(anyInt())).thenReturn(false);
+        when(secondReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        replicaPool.checkHealth();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    private Connection connection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package innowise.user_service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimiterTest {
+    private static final String KEY = "rate-limit:default:client";
+    private static final RateLimitProperties.Limit LIMIT =
+            new RateLimitProperties.Limit("default", null, null, 100, 10, 0);
+
+    @Mock
+    private RedisTokenBucket tokenBucket;
+
+    @Test
+    void testLeasedTokensAreSpentLocally() {
+        RateLimiter rateLimiter = new RateLimiter(tokenBucket, 4, Duration.ofMinutes(1));
+        when(tokenBucket.take(KEY, LIMIT, 5, 1)).thenReturn(new RedisTokenBucket.Grant(5, 0));
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(KEY, LIMIT, 1).allowed());
+        }
+
+        verify(tokenBucket, times(2)).take(KEY, LIMIT, 5, 1);
+    }
+
+    @Test
+    void testRejectionIsRememberedUntilRetryTime() {
+        RateLimiter rateLimiter = new RateLimiter(tokenBucket, 4, Duration.ofMinutes(1));
+        when(tokenBucket.take(KEY, LIMIT, 5, 1)).thenReturn(new RedisTokenBucket.Grant(0, 60_000));
+
+        RateLimiter.Decision first = rateLimiter.tryAcquire(KEY, LIMIT, 1);
+        RateLimiter.Decision second = rateLimiter.tryAcquire(KEY, LIMIT, 1);
+
+        assertFalse(first.allowed());
+        assertEquals(60_000, first.retryAfterMillis());
+        assertFalse(second.allowed());
+        assertTrue(second.retryAfterMillis() > 0);
+        verify(tokenBucket, times(1)).take(KEY, LIMIT, 5, 1);
+    }
+
+    @Test
+    void testRequestsAreLetThroughWhenRedisIsDown() {
+        RateLimiter rateLimiter = new RateLimiter(tokenBucket, 4, Duration.ofMinutes(1));
+        when(tokenBucket.take(KEY, LIMIT, 5, 1)).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(rateLimiter.tryAcquire(KEY, LIMIT, 1).allowed());
+    }
+}
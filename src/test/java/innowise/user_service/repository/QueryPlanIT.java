@@ -0,0 +1,297 @@
+package innowise.user_service.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query against the Liquibase schema on a large seeded dataset and fails if the
+ * generic plan of any captured statement sequentially scans users or a card_info partition, or if a
+ * by-user card lookup is not pruned to a single partition. Generic plans ({@code EXPLAIN (GENERIC_PLAN)})
+ * need PostgreSQL 16.
+ */
+@SpringBootTest(properties = {
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.mode=never",
+        "outbox.relay.enabled=false",
+        "cache.warm-up.enabled=false",
+        "cache.hot-keys.enabled=false"})
+@Testcontainers
+class QueryPlanIT {
+    private static final int USER_COUNT = 200_000;
+    private static final int CARDS_PER_USER = 3;
+    private static final Set<String> CHECKED_TABLES = Set.of("users", "card_info");
+    private static final String CARD_PARTITION_PREFIX = "card_info_p";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRESQL_CONTAINER =
+            new PostgreSQLContainer<>("postgres:16")
+                    .withDatabaseName("plandb")
+                    .withUsername("test")
+                    .withPassword("test");
+
+    @Container
+    static final RedisContainer REDIS_CONTAINER =
+            new RedisContainer(DockerImageName.parse("redis:7-alpine"))
+                    .withExposedPorts(6379);
+
+    private static boolean seeded;
+    private static List<Long> userIds;
+    private static long cardId;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRESQL_CONTAINER::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRESQL_CONTAINER::getUsername);
+        registry.add("spring.datasource.password", POSTGRESQL_CONTAINER::getPassword);
+
+        registry.add("spring.redis.port", () -> REDIS_CONTAINER.getMappedPort(6379));
+        registry.add("spring.redis.host", REDIS_CONTAINER::getHost);
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("""
+                insert into users (name, surname, birth_date, email, deleted_at)
+                select 'Name' || g % 1000, 'Surname' || g % 5000, date '1990-01-01' + g % 10000,
+                       'user' || g || '@example.com', case when g % 50 = 0 then now() end
+                from generate_series(1, ?) g""", USER_COUNT);
+        jdbcTemplate.update("""
+                insert into card_info (number, holder, expiration_date, user_id, deleted_at)
+                select lpad((u.id * ? + c)::text, 16, '0'), null, date '2030-01-01', u.id, u.deleted_at
+                from users u cross join generate_series(0, ? - 1) c""", CARDS_PER_USER, CARDS_PER_USER);
+        jdbcTemplate.execute("analyze users");
+        jdbcTemplate.execute("analyze card_info");
+        userIds = jdbcTemplate.queryForList("""
+                select id from users
+                where deleted_at is null and id > (select max(id) / 2 from users)
+                order by id limit 4""", Long.class);
+        cardId = jdbcTemplate.queryForObject(
+                "select min(id) from card_info where user_id = ? and deleted_at is null", Long.class, userIds.getFirst());
+        seeded = true;
+    }
+
+    @Test
+    void testUserLookupsUseIndexes() {
+        long userId = userIds.getFirst();
+        List<Long> ids = userIds.subList(0, 3);
+
+        assertIndexedPlans(() -> {
+            userRepository.findById(userId);
+            userRepository.findAllById(ids);
+            userRepository.findWithCardsById(userId);
+            userRepository.findWithCardsByEmail("user101@example.com");
+            userRepository.findAllWithCardsByIdIn(ids);
+            userRepository.findExistingIds(ids);
+            userRepository.findExistingEmails(List.of("user101@example.com", "nobody@example.com"));
+        });
+    }
+
+    @Test
+    void testUserPagesUseIndexes() {
+        assertIndexedPlans(() -> {
+            userRepository.findByIdGreaterThanOrderByIdAsc(userIds.getFirst(), Limit.of(20));
+            userRepository.findByNameAndIdGreaterThanOrderByIdAsc("Name7", 0L, Limit.of(20));
+            userRepository.findBySurnameAndIdGreaterThanOrderByIdAsc("Surname7", 0L, Limit.of(20));
+            userRepository.findByNameAndSurnameAndIdGreaterThanOrderByIdAsc("Name7", "Surname7", 0L, Limit.of(20));
+        });
+    }
+
+    @Test
+    void testCardLookupsUseIndexes() {
+        assertIndexedPlans(() -> {
+            cardRepository.findById(cardId);
+            cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userIds.getFirst(), 0L, Limit.of(21));
+            cardRepository.findExistingNumbers(List.of("0000000000000001", "9999999999999999"));
+        });
+    }
+
+    @Test
+    void testByUserCardLookupsArePrunedToOnePartition() {
+        long userId = userIds.getFirst();
+
+        List<String> statements = record(() -> cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, 0L, Limit.of(21)));
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject(
+                    "explain (format json) " + sql.replace("?", Long.toString(userId)), String.class);
+            Set<String> partitions = planNodes(plan).stream()
+                    .map(node -> node.path("Relation Name").asText())
+                    .filter(relation -> relation.startsWith(CARD_PARTITION_PREFIX))
+                    .collect(Collectors.toSet());
+            assertThat(partitions).as("card partitions scanned by%n%s%n%s", sql, plan).hasSize(1);
+        }
+    }
+
+    @Test
+    void testWritesUseIndexes() {
+        long userId = userIds.getFirst();
+
+        assertIndexedPlans(() -> transactionTemplate.executeWithoutResult(status -> {
+            userRepository.incrementVersions(List.of(userId));
+            userRepository.patchUser(userId, Map.of("name", "Patched"), null);
+            cardRepository.patchCard(cardId, Map.of("holder", "PATCHED"), null);
+            cardRepository.deleteCardsReturningOwners(List.of(cardId));
+            userRepository.deleteUsersWithCards(List.of(userIds.getLast()));
+            status.setRollbackOnly();
+        }));
+    }
+
+    private void assertIndexedPlans(Runnable queries) {
+        for (String sql : record(queries)) {
+            String plan = jdbcTemplate.queryForObject(
+                    "explain (generic_plan, format json) " + numberParameters(sql), String.class);
+            assertThat(sequentialScans(plan)).as("sequential scans in the plan of%n%s%n%s", sql, plan).isEmpty();
+        }
+    }
+
+    private static List<String> record(Runnable queries) {
+        StatementRecorder.STATEMENTS.clear();
+        StatementRecorder.recording = true;
+        try {
+            queries.run();
+        } finally {
+            StatementRecorder.recording = false;
+        }
+        List<String> statements = StatementRecorder.STATEMENTS.stream()
+                .filter(sql -> CHECKED_TABLES.stream().anyMatch(sql::contains))
+                .distinct()
+                .toList();
+        assertThat(statements).isNotEmpty();
+        return statements;
+    }
+
+    private List<String> sequentialScans(String plan) {
+        return planNodes(plan).stream()
+                .filter(node -> "Seq Scan".equals(node.path("Node Type").asText()))
+                .map(node -> table(node.path("Relation Name").asText()))
+                .filter(CHECKED_TABLES::contains)
+                .toList();
+    }
+
+    private List<JsonNode> planNodes(String plan) {
+        List<JsonNode> nodes = new ArrayList<>();
+        try {
+            collectNodes(objectMapper.readTree(plan).get(0).get("Plan"), nodes);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan " + plan, e);
+        }
+        return nodes;
+    }
+
+    private static void collectNodes(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        node.path("Plans").forEach(child -> collectNodes(child, nodes));
+    }
+
+    private static String table(String relation) {
+        return relation.startsWith(CARD_PARTITION_PREFIX) ? "card_info" : relation;
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    @TestConfiguration
+    static class StatementRecorder {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        static volatile boolean recording;
+
+        @Bean
+        static BeanPostProcessor statementRecordingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                        return new DelegatingDataSource(dataSource) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return recording(super.getConnection());
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (recording && "prepareStatement".equals(method.getName())) {
+                            STATEMENTS.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
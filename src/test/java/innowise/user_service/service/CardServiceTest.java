@@ -1,9 +1,19 @@
 package innowise.user_service.service;
 
+import innowise.user_service.bloom.IdFilters;
+import innowise.user_service.cache.CachedBatch;
+import innowise.user_service.dto.BulkResultDto;
 import innowise.user_service.dto.CardDto;
+import innowise.user_service.dto.PageDto;
 import innowise.user_service.entity.Card;
+import innowise.user_service.entity.User;
+import innowise.user_service.exception.CardAlreadyExistsException;
+import innowise.user_service.exception.PreconditionFailedException;
 import innowise.user_service.mapper.CardMapperImpl;
+import innowise.user_service.outbox.OutboxEventType;
+import innowise.user_service.outbox.OutboxWriter;
 import innowise.user_service.repository.CardRepository;
+import innowise.user_service.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,14 +22,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,12 +52,32 @@ class CardServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DtoValidator dtoValidator;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private IdFilters idFilters;
+
     @Spy
     private CardMapperImpl cardMapper = new CardMapperImpl();
 
     @InjectMocks
     private CardService cardService;
 
+    private static final Long USER_ID = 1L;
+
+    private final ConcurrentMapCache cardCache = new ConcurrentMapCache("card");
+    private final ConcurrentMapCache userCache = new ConcurrentMapCache("user");
+    private final ConcurrentMapCache userCardsCache = new ConcurrentMapCache("userCards");
     private CardDto cardDto;
     private Card card;
 
@@ -61,7 +100,14 @@ class CardServiceTest {
 
     @Test
     void testCreateCard() {
-        when(cardRepository.save(any(Card.class))).thenReturn(card);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(cardRepository.saveAndFlush(any(Card.class))).thenReturn(card);
+        when(userRepository.getReferenceById(USER_ID)).thenReturn(User.builder().id(USER_ID).build());
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+        cardDto.setUserId(USER_ID);
+        userCache.put(USER_ID, "stale user");
+        userCardsCache.put(USER_ID, List.of());
 
         CardDto result = cardService.createCard(cardDto);
 
@@ -69,11 +115,27 @@ class CardServiceTest {
         assertEquals(cardDto.getId(), result.getId());
         assertEquals(cardDto.getNumber(), result.getNumber());
         assertEquals(cardDto.getHolder(), result.getHolder());
-        verify(cardRepository).save(any(Card.class));
+        verify(cardRepository).saveAndFlush(any(Card.class));
+        verify(userRepository).incrementVersions(Collections.singleton(USER_ID));
+        assertNull(userCache.get(USER_ID));
+        assertNull(userCardsCache.get(USER_ID));
+    }
+
+    @Test
+    void testCreateCardForMissingUser() {
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+        cardDto.setUserId(USER_ID);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> cardService.createCard(cardDto));
+
+        assertEquals("There is no user with id " + USER_ID, exception.getMessage());
+        verify(cardRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testGetCardById() {
+        when(cacheManager.getCache("card")).thenReturn(new ConcurrentMapCache("card"));
         Long cardId = 1L;
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
 
@@ -88,6 +150,7 @@ class CardServiceTest {
 
     @Test
     void testGetCardByIdWithNonExistingCard() {
+        when(cacheManager.getCache("card")).thenReturn(new ConcurrentMapCache("card"));
         Long cardId = 999L;
         when(cardRepository.findById(cardId)).thenReturn(Optional.empty());
 
@@ -99,32 +162,67 @@ class CardServiceTest {
     }
 
     @Test
-    void testGetCardsByIds() {
-        List<Long> ids = Arrays.asList(1L, 2L, 3L);
-        List<Card> cards = Arrays.asList(card, card, card);
+    void testGetCardByIdRejectedByIdFilterSkipsTheCache() {
+        Long cardId = 999L;
+        when(idFilters.cardMissing(cardId)).thenReturn(true);
+        when(cardRepository.findById(cardId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> cardService.getCardById(cardId));
+        verify(cacheManager, never()).getCache(any());
+    }
+
+    @Test
+    void testGetCardByIdRejectedByIdFilterStillFindsAnExistingCard() {
+        Long cardId = 1L;
+        when(idFilters.cardMissing(cardId)).thenReturn(true);
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+
+        CardDto result = cardService.getCardById(cardId);
+
+        assertEquals(card.getNumber(), result.getNumber());
+        verify(idFilters).cardFound(cardId);
+        verify(cacheManager, never()).getCache(any());
+    }
 
-        when(cardRepository.findAllById(ids)).thenReturn(cards);
+    @Test
+    void testGetCardsByIds() {
+        List<Long> ids = Arrays.asList(1L, 2L, 1L);
+        Card secondCard = Card.builder().id(2L).number("6543210987654321").holder("Jane Doe").build();
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
+        when(cardRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(secondCard, card));
 
-        List<CardDto> result = cardService.getCardsByIds(ids);
+        CachedBatch<CardDto> result = cardService.getCardsByIds(ids);
 
         assertNotNull(result);
-        assertEquals(3, result.size());
-        result.forEach(dto -> {
-            assertEquals(cardDto.getId(), dto.getId());
-            assertEquals(cardDto.getNumber(), dto.getNumber());
-        });
-        verify(cardRepository).findAllById(ids);
+        assertEquals(List.of(1L, 2L, 1L), result.values().stream().map(CardDto::getId).toList());
+        assertEquals(cardDto.getNumber(), result.values().getFirst().getNumber());
+        assertEquals(0, result.hits());
+        assertEquals(2, result.misses());
+        assertNotNull(cardCache.get(2L));
+    }
+
+    @Test
+    void testGetCardsByIdsFromCache() {
+        cardCache.put(1L, cardDto);
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
+
+        CachedBatch<CardDto> result = cardService.getCardsByIds(List.of(1L));
+
+        assertEquals(List.of(cardDto), result.values());
+        assertEquals(1, result.hits());
+        verify(cardRepository, never()).findAllById(any());
     }
 
     @Test
     void testGetCardsByIdsWithNonExistingCard() {
         List<Long> ids = Arrays.asList(999L, 1000L);
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
         when(cardRepository.findAllById(ids)).thenReturn(List.of());
 
-        List<CardDto> result = cardService.getCardsByIds(ids);
+        CachedBatch<CardDto> result = cardService.getCardsByIds(ids);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.values().isEmpty());
         verify(cardRepository).findAllById(ids);
     }
 
@@ -143,7 +241,8 @@ class CardServiceTest {
                 .build();
 
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
-        when(cardRepository.save(card)).thenReturn(card);
+        when(cardRepository.saveAndFlush(card)).thenReturn(card);
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
 
         CardDto result = cardService.updateCardById(updatedCardDto, cardId);
 
@@ -151,7 +250,44 @@ class CardServiceTest {
         assertEquals(updatedCardDto.getNumber(), result.getNumber());
         assertEquals(updatedCardDto.getHolder(), result.getHolder());
         verify(cardRepository).findById(cardId);
-        verify(cardRepository).save(card);
+        verify(cardRepository).saveAndFlush(card);
+        assertEquals(result, cardCache.get(cardId, CardDto.class));
+    }
+
+    @Test
+    void testUpdateCardByIdWithTakenNumber() {
+        CardDto updatedCardDto = CardDto.builder()
+                .number("9876543210987654")
+                .holder("Jane Smith")
+                .expirationDate(LocalDate.of(2026, 6, 22))
+                .build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardRepository.saveAndFlush(card)).thenThrow(new DataIntegrityViolationException(
+                "duplicate key", new SQLException("duplicate key value violates unique constraint", "23505")));
+
+        CardAlreadyExistsException exception = assertThrows(CardAlreadyExistsException.class,
+                () -> cardService.updateCardById(updatedCardDto, 1L));
+
+        assertEquals("Card with number 9876543210987654 already exists", exception.getMessage());
+    }
+
+    @Test
+    void testUpdateCardByIdWithStaleVersion() {
+        Long cardId = 1L;
+        card.setVersion(3L);
+        CardDto staleCardDto = CardDto.builder()
+                .number("9876543210987654")
+                .holder("Jane Smith")
+                .expirationDate(LocalDate.of(2026, 6, 22))
+                .version(2L)
+                .build();
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> cardService.updateCardById(staleCardDto, cardId));
+
+        assertEquals("Card 1 is at version 3, not 2", exception.getMessage());
+        verify(cardRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -171,30 +307,144 @@ class CardServiceTest {
 
         assertEquals("There is no card with id 999", exception.getMessage());
         verify(cardRepository).findById(cardId);
-        verify(cardRepository, never()).save(any());
+        verify(cardRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testDeleteCardById() {
         Long cardId = 1L;
-        when(cardRepository.existsById(cardId)).thenReturn(true);
+        when(cardRepository.deleteCardsReturningOwners(List.of(cardId))).thenReturn(Map.of(cardId, USER_ID));
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+        cardCache.put(cardId, cardDto);
+        userCardsCache.put(USER_ID, List.of(cardDto));
 
         cardService.deleteCardById(cardId);
 
-        verify(cardRepository).existsById(cardId);
-        verify(cardRepository).deleteById(cardId);
+        verify(cardRepository, never()).findById(any());
+        verify(outboxWriter).append(OutboxEventType.CARD_DELETED, cardId, USER_ID, null);
+        assertNull(cardCache.get(cardId));
+        assertNull(userCardsCache.get(USER_ID));
     }
 
     @Test
     void testDeleteCardByIdWithNonExistingCard() {
         Long cardId = 999L;
-        when(cardRepository.existsById(cardId)).thenReturn(false);
+        when(cardRepository.deleteCardsReturningOwners(List.of(cardId))).thenReturn(Map.of());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> cardService.deleteCardById(cardId));
 
         assertEquals("There is no card with id 999", exception.getMessage());
-        verify(cardRepository).existsById(cardId);
-        verify(cardRepository, never()).deleteById(cardId);
+        verify(outboxWriter, never()).append(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateCards() {
+        CardDto existingUserCard = CardDto.builder()
+                .userId(1L)
+                .number("1234567890123456")
+                .holder("John Doe")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+        CardDto missingUserCard = CardDto.builder()
+                .userId(2L)
+                .number("6543210987654321")
+                .holder("Jane Doe")
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+        when(userRepository.findExistingIds(List.of(1L, 2L))).thenReturn(Set.of(1L));
+        when(userRepository.getReferenceById(1L)).thenReturn(User.builder().id(1L).build());
+        when(cardRepository.findExistingNumbers(List.of("1234567890123456", "6543210987654321")))
+                .thenReturn(Set.of());
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+
+        List<BulkResultDto<CardDto>> results = cardService.createCards(List.of(existingUserCard, missingUserCard));
+
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getBody().getUserId());
+        assertEquals(404, results.get(1).getStatus());
+        verify(cardRepository).saveAll(any());
+        verify(cardRepository).flush();
+    }
+
+    @Test
+    void testDeleteCards() {
+        when(cardRepository.deleteCardsReturningOwners(List.of(1L, 999L)))
+                .thenReturn(Collections.singletonMap(1L, null));
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
+
+        List<BulkResultDto<Void>> results = cardService.deleteCards(List.of(1L, 999L));
+
+        assertEquals(204, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        verify(outboxWriter).append(OutboxEventType.CARD_DELETED, 1L, null, null);
+    }
+
+    @Test
+    void testGetCardsByUserId() {
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+        when(cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(USER_ID, 0L, Limit.of(21))).thenReturn(List.of(card));
+
+        PageDto<CardDto> page = cardService.getCardsByUserId(USER_ID, null, 20);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(card.getId(), page.getItems().getFirst().getId());
+        assertNotNull(userCardsCache.get(USER_ID));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testGetCardsByUserIdFromCache() {
+        CardDto secondCard = CardDto.builder().id(2L).userId(USER_ID).build();
+        CardDto thirdCard = CardDto.builder().id(3L).userId(USER_ID).build();
+        userCardsCache.put(USER_ID, List.of(cardDto, secondCard, thirdCard));
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+
+        PageDto<CardDto> page = cardService.getCardsByUserId(USER_ID, 1L, 1);
+
+        assertEquals(List.of(secondCard), page.getItems());
+        assertEquals(2L, page.getNextCursor());
+        verify(cardRepository, never()).findByUserIdAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void testGetCardsByUserIdDoesNotCacheListsLongerThanOnePage() {
+        Card secondCard = Card.builder().id(2L).number("2222333344445555").holder("Jane Doe").build();
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+        when(cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(USER_ID, 0L, Limit.of(2)))
+                .thenReturn(List.of(card, secondCard));
+
+        PageDto<CardDto> page = cardService.getCardsByUserId(USER_ID, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(card.getId(), page.getNextCursor());
+        assertNull(userCardsCache.get(USER_ID));
+    }
+
+    @Test
+    void testGetCardsByUserIdSeeksLaterPagesWithoutCaching() {
+        Card secondCard = Card.builder().id(2L).number("2222333344445555").holder("Jane Doe").build();
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+        when(cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(USER_ID, 1L, Limit.of(21)))
+                .thenReturn(List.of(secondCard));
+
+        PageDto<CardDto> page = cardService.getCardsByUserId(USER_ID, 1L, 20);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertNull(userCardsCache.get(USER_ID));
+    }
+
+    @Test
+    void testGetCardsByUserIdWithNonExistingUser() {
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+        when(cardRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(999L, 0L, Limit.of(21))).thenReturn(List.of());
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> cardService.getCardsByUserId(999L, null, 20));
+        assertNull(userCardsCache.get(999L));
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,19 @@
 package innowise.user_service.service;
 
+import innowise.user_service.bloom.IdFilters;
+import innowise.user_service.cache.CachedBatch;
+import innowise.user_service.dto.BulkResultDto;
+import innowise.user_service.dto.PageDto;
 import innowise.user_service.dto.UserDto;
 import innowise.user_service.entity.User;
+import innowise.user_service.exception.InvalidPatchException;
+import innowise.user_service.exception.PreconditionFailedException;
 import innowise.user_service.exception.UserAlreadyExistsException;
 import innowise.user_service.mapper.UserMapperImpl;
+import innowise.user_service.outbox.OutboxEventType;
+import innowise.user_service.outbox.OutboxWriter;
+import innowise.user_service.repository.UserDeleteOperations.DeletedUsers;
+import innowise.user_service.repository.UserPatchOperations.PatchedUser;
 import innowise.user_service.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,17 +23,30 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +56,21 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DtoValidator dtoValidator;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private IdFilters idFilters;
+
     @Spy
     private UserMapperImpl userMapper = new UserMapperImpl();
 
@@ -66,7 +104,8 @@ class UserServiceTest {
 
     @Test
     void testCreateUser() {
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
 
         UserDto result = userService.createUser(userDto);
 
@@ -75,21 +114,33 @@ class UserServiceTest {
         assertEquals(userDto.getSurname(), result.getSurname());
         assertEquals(userDto.getEmail(), result.getEmail());
         verify(userMapper).toEntity(userDto);
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
         verify(userMapper).toDto(user);
+        verify(cache).put(user.getEmail(), USER_ID);
+        verify(outboxWriter).append(OutboxEventType.USER_CREATED, USER_ID, USER_ID, result);
     }
 
     @Test
     void testCreateUserWithExistingEmail() {
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate key", new SQLException("duplicate key value violates unique constraint", "23505")));
 
         assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(userDto));
-        verify(userRepository, never()).save(any(User.class));
+        verify(cacheManager, never()).getCache(any());
+    }
+
+    @Test
+    void testCreateUserWithOtherIntegrityViolation() {
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "not null", new SQLException("null value in column violates not-null constraint", "23502")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(userDto));
     }
 
     @Test
     void testGetUserById() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(cacheManager.getCache("user")).thenReturn(new ConcurrentMapCache("user"));
+        when(userRepository.findWithCardsById(USER_ID)).thenReturn(Optional.of(user));
 
         UserDto result = userService.getUserById(USER_ID);
 
@@ -97,51 +148,98 @@ class UserServiceTest {
         assertEquals(userDto.getName(), result.getName());
         assertEquals(userDto.getSurname(), result.getSurname());
         assertEquals(userDto.getEmail(), result.getEmail());
-        verify(userRepository).findById(USER_ID);
+        verify(userRepository).findWithCardsById(USER_ID);
         verify(userMapper).toDto(user);
     }
 
     @Test
     void testGetUserByIdWithNonExistingUser() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(cacheManager.getCache("user")).thenReturn(new ConcurrentMapCache("user"));
+        when(userRepository.findWithCardsById(USER_ID)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> userService.getUserById(USER_ID));
-        verify(userRepository).findById(USER_ID);
+        verify(userRepository).findWithCardsById(USER_ID);
         verify(userMapper, never()).toDto(any());
     }
 
+    @Test
+    void testGetUserByIdRejectedByIdFilterSkipsTheCache() {
+        when(idFilters.userMissing(USER_ID)).thenReturn(true);
+        when(userRepository.findWithCardsById(USER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> userService.getUserById(USER_ID));
+        verify(cacheManager, never()).getCache(any());
+        verify(idFilters, never()).userFound(anyLong());
+    }
+
+    @Test
+    void testGetUserByIdRejectedByIdFilterStillFindsAnExistingUser() {
+        when(idFilters.userMissing(USER_ID)).thenReturn(true);
+        when(userRepository.findWithCardsById(USER_ID)).thenReturn(Optional.of(user));
+
+        UserDto result = userService.getUserById(USER_ID);
+
+        assertEquals(userDto.getEmail(), result.getEmail());
+        verify(idFilters).userFound(USER_ID);
+        verify(cacheManager, never()).getCache(any());
+    }
+
     @Test
     void testGetUsersByIds() {
         List<Long> ids = List.of(1L, 2L);
         List<User> users = List.of(user);
-        when(userRepository.findAllById(ids)).thenReturn(users);
+        when(cacheManager.getCache("user")).thenReturn(cache);
+        when(userRepository.findAllWithCardsByIdIn(ids)).thenReturn(users);
 
-        List<UserDto> result = userService.getUsersByIds(ids);
+        CachedBatch<UserDto> result = userService.getUsersByIds(ids);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(userDto.getName(), result.getFirst().getName());
-        verify(userRepository).findAllById(ids);
+        assertEquals(1, result.values().size());
+        assertEquals(userDto.getName(), result.values().getFirst().getName());
+        assertEquals(0, result.hits());
+        assertEquals(2, result.misses());
+        verify(userRepository).findAllWithCardsByIdIn(ids);
         verify(userMapper).toDto(user);
+        verify(cache).put(eq(USER_ID), any(UserDto.class));
+    }
+
+    @Test
+    void testGetUsersByIdsLoadsOnlyMissingIdsAndKeepsOrder() {
+        ConcurrentMapCache userCache = new ConcurrentMapCache("user");
+        UserDto cachedUser = UserDto.builder().id(2L).name("Jane").build();
+        userCache.put(2L, cachedUser);
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(userRepository.findAllWithCardsByIdIn(List.of(USER_ID))).thenReturn(List.of(user));
+
+        CachedBatch<UserDto> result = userService.getUsersByIds(List.of(2L, USER_ID, 2L));
+
+        assertEquals(List.of(2L, USER_ID, 2L), result.values().stream().map(UserDto::getId).toList());
+        assertEquals(1, result.hits());
+        assertEquals(1, result.misses());
+        assertNotNull(userCache.get(USER_ID));
     }
 
     @Test
     void getUsersByIdsWithEmptyList() {
         List<Long> ids = List.of(1L, 2L);
-        when(userRepository.findAllById(ids)).thenReturn(List.of());
+        when(cacheManager.getCache("user")).thenReturn(cache);
+        when(userRepository.findAllWithCardsByIdIn(ids)).thenReturn(List.of());
 
-        List<UserDto> result = userService.getUsersByIds(ids);
+        CachedBatch<UserDto> result = userService.getUsersByIds(ids);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(userRepository).findAllById(ids);
+        assertTrue(result.values().isEmpty());
+        verify(userRepository).findAllWithCardsByIdIn(ids);
         verify(userMapper, never()).toDto(any());
     }
 
     @Test
     void testGetUserByEmail() {
         String email = "john.doe@example.com";
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        Cache userCache = mock(Cache.class);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(userRepository.findWithCardsByEmail(email)).thenReturn(Optional.of(user));
 
         UserDto result = userService.getUserByEmail(email);
 
@@ -149,17 +247,53 @@ class UserServiceTest {
         assertEquals(userDto.getName(), result.getName());
         assertEquals(userDto.getSurname(), result.getSurname());
         assertEquals(userDto.getEmail(), result.getEmail());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findWithCardsByEmail(email);
         verify(userMapper).toDto(user);
+        verify(cache).put(email, USER_ID);
+        verify(userCache).put(USER_ID, result);
+    }
+
+    @Test
+    void testGetUserByEmailFromCache() {
+        String email = "john.doe@example.com";
+        Cache userCache = mock(Cache.class);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(cache.get(email, Long.class)).thenReturn(USER_ID);
+        when(userCache.get(USER_ID, UserDto.class)).thenReturn(userDto);
+
+        UserDto result = userService.getUserByEmail(email);
+
+        assertEquals(userDto, result);
+        verify(userRepository, never()).findWithCardsByEmail(any());
+        verify(userRepository, never()).findWithCardsById(any());
+    }
+
+    @Test
+    void testGetUserByEmailWithStaleCacheEntry() {
+        String email = "john.doe@example.com";
+        Cache userCache = mock(Cache.class);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+        when(cacheManager.getCache("user")).thenReturn(userCache);
+        when(cache.get(email, Long.class)).thenReturn(2L);
+        when(userRepository.findWithCardsById(2L)).thenReturn(Optional.empty());
+        when(userRepository.findWithCardsByEmail(email)).thenReturn(Optional.of(user));
+
+        UserDto result = userService.getUserByEmail(email);
+
+        assertEquals(USER_ID, result.getId());
+        verify(cache).evict(email);
+        verify(cache).put(email, USER_ID);
     }
 
     @Test
     void testGetUserByEmailWithNonExistingUser() {
         String email = "nonexistent@example.com";
-        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+        when(userRepository.findWithCardsByEmail(email)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> userService.getUserByEmail(email));
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).findWithCardsByEmail(email);
         verify(userMapper, never()).toDto(any());
     }
 
@@ -174,7 +308,8 @@ class UserServiceTest {
                 .build();
 
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
 
         UserDto result = userService.updateUserById(updatedUserDto, USER_ID);
 
@@ -184,8 +319,55 @@ class UserServiceTest {
         assertEquals(updatedUserDto.getEmail(), result.getEmail());
         verify(userRepository).findById(USER_ID);
         verify(userMapper).updateEntityFromDto(updatedUserDto, user);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
         verify(userMapper).toDto(user);
+        verify(cache).evict("john.doe@example.com");
+        verify(cache).put("john.updated@example.com", USER_ID);
+    }
+
+    @Test
+    void testPatchUserById() {
+        UserDto changes = UserDto.builder().email("john.patched@example.com").build();
+        User patchedUser = User.builder()
+                .id(USER_ID)
+                .name(user.getName())
+                .surname(user.getSurname())
+                .email("john.patched@example.com")
+                .birthDate(user.getBirthDate())
+                .version(1L)
+                .build();
+        when(userRepository.patchUser(USER_ID, Map.of("email", "john.patched@example.com"), null))
+                .thenReturn(Optional.of(new PatchedUser(patchedUser, "john.doe@example.com")));
+        when(cacheManager.getCache("user")).thenReturn(cache);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+
+        UserDto result = userService.patchUserById(USER_ID, changes, Set.of("email"));
+
+        assertEquals("john.patched@example.com", result.getEmail());
+        assertEquals(user.getName(), result.getName());
+        assertEquals(1L, result.getVersion());
+        verify(cache).put(USER_ID, result);
+        verify(cache).evict("john.doe@example.com");
+        verify(cache).put("john.patched@example.com", USER_ID);
+        verify(outboxWriter).append(OutboxEventType.USER_UPDATED, USER_ID, USER_ID, result);
+    }
+
+    @Test
+    void testPatchUserByIdWithUnpatchableField() {
+        UserDto changes = UserDto.builder().id(2L).build();
+
+        assertThrows(InvalidPatchException.class, () -> userService.patchUserById(USER_ID, changes, Set.of("id")));
+        verify(userRepository, never()).patchUser(any(Long.class), any(), any());
+    }
+
+    @Test
+    void testPatchUserByIdWithStaleVersion() {
+        UserDto changes = UserDto.builder().name("Jane").version(3L).build();
+        when(userRepository.patchUser(USER_ID, Map.of("name", "Jane"), 3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.patchUserById(USER_ID, changes, Set.of("name")));
     }
 
     @Test
@@ -195,25 +377,111 @@ class UserServiceTest {
         assertThrows(EntityNotFoundException.class, () -> userService.updateUserById(userDto, USER_ID));
         verify(userRepository).findById(USER_ID);
         verify(userMapper, never()).updateEntityFromDto(any(), any());
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void testDeleteUserById() {
-        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(userRepository.deleteUsersWithCards(List.of(USER_ID)))
+                .thenReturn(new DeletedUsers(Map.of(USER_ID, "john.doe@example.com"), Set.of(10L)));
+        Cache emailCache = mock(Cache.class);
+        Cache cardCache = mock(Cache.class);
+        when(cacheManager.getCache("user")).thenReturn(cache);
+        when(cacheManager.getCache("userEmail")).thenReturn(emailCache);
+        when(cacheManager.getCache("userCards")).thenReturn(cache);
+        when(cacheManager.getCache("card")).thenReturn(cardCache);
 
         userService.deleteUserById(USER_ID);
 
-        verify(userRepository).existsById(USER_ID);
-        verify(userRepository).deleteById(USER_ID);
+        verify(userRepository, never()).existsById(any());
+        verify(userRepository, never()).deleteById(any());
+        verify(cache, times(2)).evict(USER_ID);
+        verify(emailCache).evict("john.doe@example.com");
+        verify(cardCache).evict(10L);
+        verify(outboxWriter).append(OutboxEventType.USER_DELETED, USER_ID, USER_ID, null);
     }
 
     @Test
     void testDeleteUserByIdWithNonExistingUser() {
-        when(userRepository.existsById(USER_ID)).thenReturn(false);
+        when(userRepository.deleteUsersWithCards(List.of(USER_ID)))
+                .thenReturn(new DeletedUsers(Map.of(), Set.of()));
 
         assertThrows(EntityNotFoundException.class, () -> userService.deleteUserById(USER_ID));
-        verify(userRepository).existsById(USER_ID);
-        verify(userRepository, never()).deleteById(any());
+        verify(outboxWriter, never()).append(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateUsers() {
+        UserDto duplicateDto = UserDto.builder()
+                .name("Jane")
+                .surname("Doe")
+                .email(userDto.getEmail())
+                .birthDate(LocalDate.of(1995, 5, 15))
+                .build();
+        when(userRepository.findExistingEmails(List.of(userDto.getEmail(), duplicateDto.getEmail())))
+                .thenReturn(Set.of());
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+
+        List<BulkResultDto<UserDto>> results = userService.createUsers(List.of(userDto, duplicateDto));
+
+        assertEquals(2, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(userDto.getEmail(), results.get(0).getBody().getEmail());
+        assertEquals(409, results.get(1).getStatus());
+        verify(userRepository).saveAll(any());
+        verify(userRepository).flush();
+    }
+
+    @Test
+    void testCreateUsersWithInvalidUser() {
+        when(userRepository.findExistingEmails(List.of(userDto.getEmail()))).thenReturn(Set.of());
+        when(dtoValidator.validate(userDto)).thenReturn(Optional.of("name: Name can't be blank"));
+
+        List<BulkResultDto<UserDto>> results = userService.createUsers(List.of(userDto));
+
+        assertEquals(400, results.getFirst().getStatus());
+        assertEquals("name: Name can't be blank", results.getFirst().getError());
+    }
+
+    @Test
+    void testDeleteUsers() {
+        when(userRepository.deleteUsersWithCards(List.of(USER_ID, 2L)))
+                .thenReturn(new DeletedUsers(Map.of(USER_ID, "john.doe@example.com"), Set.of()));
+        when(cacheManager.getCache("user")).thenReturn(cache);
+        when(cacheManager.getCache("userEmail")).thenReturn(cache);
+        Cache userCardsCache = mock(Cache.class);
+        when(cacheManager.getCache("userCards")).thenReturn(userCardsCache);
+
+        List<BulkResultDto<Void>> results = userService.deleteUsers(List.of(USER_ID, 2L));
+
+        assertEquals(204, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+        verify(cache).evict(USER_ID);
+        verify(cache).evict("john.doe@example.com");
+        verify(userCardsCache).evict(USER_ID);
+    }
+
+    @Test
+    void testGetUsersPageWithNextCursor() {
+        User secondUser = User.builder().id(2L).name("Jane").surname("Doe").cards(List.of()).build();
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(user, secondUser));
+
+        PageDto<UserDto> page = userService.getUsersPage(null, 1, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(USER_ID, page.getItems().getFirst().getId());
+        assertEquals(USER_ID, page.getNextCursor());
+    }
+
+    @Test
+    void testGetUsersPageFilteredByNameAndSurname() {
+        when(userRepository.findByNameAndSurnameAndIdGreaterThanOrderByIdAsc("John", "Doe", USER_ID, Limit.of(21)))
+                .thenReturn(List.of());
+
+        PageDto<UserDto> page = userService.getUsersPage(USER_ID, 20, "John", "Doe");
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,2 @@
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_live ON users(email) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_card_info_number_live ON card_info(number) WHERE deleted_at IS NULL;